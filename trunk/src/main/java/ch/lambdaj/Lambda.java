@@ -4,6 +4,7 @@
 
 package ch.lambdaj;
 
+import static ch.lambdaj.function.aggregate.PrimitiveAggregation.isPrimitiveAggregable;
 import static ch.lambdaj.function.argument.ArgumentsFactory.*;
 import static ch.lambdaj.function.closure.ClosuresFactory.*;
 import static ch.lambdaj.function.compare.ComparatorUtil.getStandardComparator;
@@ -25,6 +26,7 @@ import ch.lambdaj.function.compare.*;
 import ch.lambdaj.function.convert.*;
 import ch.lambdaj.function.matcher.*;
 import ch.lambdaj.proxy.*;
+import ch.lambdaj.collection.*;
 import ch.lambdaj.group.*;
 
 /**
@@ -44,6 +46,14 @@ public final class Lambda {
         ArgumentsFactory.enableJitting(enable);
     }
 
+    /**
+     * Enable the JIT optimization of lambdaj's arguments using the given policy or disable it if the policy is null
+     * @param policy The policy defining when and in which thread the arguments are compiled, or null to disable the JIT optimization
+     */
+    public static void enableJitting(JitPolicy policy) {
+        ArgumentsFactory.enableJitting(policy);
+    }
+
     /**
      * Register a custom argument creator factory for an unknown final class
      * @param clazz  The class for which this factory should be used
@@ -65,6 +75,12 @@ public final class Lambda {
 	
 	/**
 	 * Returns the actual argument of the methods invocation sequence defined through the {@link Lambda#on(Class)} method.
+	 * The returned Argument can be stored and reused with all the methods of this class accepting an Argument,
+	 * avoiding to record and look up again its invocation sequence each time, as in the following example:
+	 * <pre>
+	 * 		private static final Argument&lt;Double&gt; COST = argument(on(Sale.class).getCost());
+	 *		double totalCost = sum(sales, COST);
+	 * </pre>
 	 * @param argumentPlaceholder The placeholder for this argument created using the {@link Lambda#on(Class)} method
      * @return The actual argument of the methods invocation sequence defined through the {@link Lambda#on(Class)} method
 	 */
@@ -167,6 +183,40 @@ public final class Lambda {
         return ProxyIterator.createProxyIterator((ResettableIterator<T>)asResettableIterator(array), clazz);
     }
 
+	/**
+	 * Transforms a collection of Ts in a single object having the same methods of a single instance of T, as done by
+	 * {@link Lambda#forEach(Iterable)}. Differently from it the invocations of methods returning an object are lazily
+	 * evaluated, so a chain of invocations as in the following example:
+	 * <pre>
+	 * 		List&lt;City&gt; cities = collect(lazyForEach(persons).getAddress().getCity());
+	 * </pre>
+	 * doesn't materialize the intermediate results and each method is actually invoked only when its results are iterated.
+	 * Note that the results of all the invocations of the same chain are calculated from the same iterator
+	 * on the given iterable, so only one of them can be iterated at a time.
+	 * @param <T> The type of the items in the iterable
+	 * @param iterable The iterable to be transformed
+	 * @return An object that lazily proxies all the item in the iterable
+	 * @throws IllegalArgumentException if the iterable is null or empty
+	 */
+	public static <T> T lazyForEach(Iterable<? extends T> iterable) {
+        ResettableIterator<T> resettableIterator = (ResettableIterator<T>)asResettableIterator(iterable);
+        if (!resettableIterator.hasNext())
+            throw new IllegalArgumentException("lazyForEach() is unable to introspect on an empty iterator. Use the overloaded method accepting a class instead");
+        return ProxyIterator.createLazyProxyIterator(resettableIterator, resettableIterator.next());
+	}
+
+	/**
+	 * Transforms a collection of Ts in a single object having the same methods of a single instance of T
+	 * lazily evaluating the invocations of methods returning an object, as done by {@link Lambda#lazyForEach(Iterable)}.
+	 * @param <T> The type of the items in the iterable
+	 * @param iterable The iterable to be transformed
+	 * @param clazz The class proxied by the returned object
+	 * @return An object that lazily proxies all the item in the iterable
+	 */
+	public static <T> T lazyForEach(Iterable<? extends T> iterable, Class<T> clazz) {
+        return ProxyIterator.createLazyProxyIterator((ResettableIterator<T>)asResettableIterator(iterable), clazz);
+	}
+
 	// ////////////////////////////////////////////////////////////////////////
 	// /// Collection
 	// ////////////////////////////////////////////////////////////////////////
@@ -217,6 +267,17 @@ public final class Lambda {
 		return (List<T>)collect(convert(iterable, new ArgumentConverter<Object, T>(argument)));
 	}
 
+	/**
+	 * Collects the values of the given argument on the items in the given iterable.
+	 * @param iterable The iterable of which the items should be collected
+	 * @param argument An argument obtained through the {@link Lambda#argument(Object)} method
+	 * @return A List containing all the items collected from the give iterable
+	 * @throws RuntimeException if the iterable is not an Iterable or a Map
+	 */
+	public static <T> List<T> collect(Object iterable, Argument<T> argument) {
+		return (List<T>)collect(convert(iterable, new ArgumentConverter<Object, T>(argument)));
+	}
+
 	// ////////////////////////////////////////////////////////////////////////
 	// /// Sort
 	// ////////////////////////////////////////////////////////////////////////
@@ -251,6 +312,7 @@ public final class Lambda {
 
 	/**
 	 * Sorts all the items in the given iterable on the respective values of the given argument comparing them with the given comparator.
+     * The argument is evaluated only once on each item and the items whose argument's value is null are put at the end of the list.
      * Actually it handles also Maps, Arrays and Iterator by collecting their values.
 	 * Note that this method accepts an Object in order to be used in conjunction with the {@link Lambda#forEach(Iterable)}.
 	 * @param iterable The iterable of objects to be sorted
@@ -259,12 +321,95 @@ public final class Lambda {
 	 * @return A List with the same items of the given iterable sorted on the respective value of the given argument
 	 */
 	public static <T, A> List<T> sort(Object iterable, A argument, Comparator<A> comparator) {
-		List<T> sorted = new LinkedList<T>();
-        for (Iterator<?> i = asIterator(iterable); i.hasNext();) { sorted.add((T)i.next()); }
-		Collections.sort(sorted, new ArgumentComparator<T, A>(argument, comparator));
-		return sorted;
+		return ArgumentSorter.sort(asIterator(iterable), actualArgument(argument), comparator);
 	}
 
+    /**
+     * Sorts all the items in the given iterable on the respective values of the given argument, evaluating the argument
+     * and sorting the items in parallel on the default ForkJoinPool of lambdaj.
+     * @param iterable The iterable of objects to be sorted
+     * @param argument An argument defined using the {@link Lambda#on(Class)} method
+     * @return A List with the same items of the given iterable sorted on the respective value of the given argument
+     */
+    public static <T> List<T> parallelSort(Object iterable, Object argument) {
+        return parallelSort(iterable, argument, 0);
+    }
+
+    /**
+     * Sorts all the items in the given iterable on the respective values of the given argument, evaluating the argument
+     * and sorting the items in parallel on the default ForkJoinPool of lambdaj.
+     * @param iterable The iterable of objects to be sorted
+     * @param argument An argument defined using the {@link Lambda#on(Class)} method
+     * @param option  Sorting option e.g.: DESCENDING + IGNORE_CASE
+     * @return A List with the same items of the given iterable sorted on the respective value of the given argument
+     */
+    public static <T> List<T> parallelSort(Object iterable, Object argument, int option) {
+        return parallelSort(iterable, argument, getStandardComparator(option));
+    }
+
+    /**
+     * Sorts all the items in the given iterable on the respective values of the given argument comparing them with the given comparator,
+     * evaluating the argument and sorting the items in parallel on the default ForkJoinPool of lambdaj.
+     * @param iterable The iterable of objects to be sorted
+     * @param argument An argument defined using the {@link Lambda#on(Class)} method
+     * @param comparator The comparator to determine the order of the list. A null value indicates that the elements' natural ordering should be used
+     * @return A List with the same items of the given iterable sorted on the respective value of the given argument
+     */
+    public static <T, A> List<T> parallelSort(Object iterable, A argument, Comparator<A> comparator) {
+        return ParallelArgumentSorter.sort(iterable, actualArgument(argument), comparator);
+    }
+
+    /**
+     * Selects the k items in the given iterable having the highest values of the given argument, sorted in descending order.
+     * Only k items are kept while iterating, so this is cheaper than sorting all the items when k is small.
+     * @param iterable The iterable of objects to be selected
+     * @param argument An argument defined using the {@link Lambda#on(Class)} method
+     * @param k The maximum number of items to be selected
+     * @return A List with the k items having the highest values of the given argument
+     */
+    public static <T> List<T> top(Object iterable, Object argument, int k) {
+        return top(iterable, argument, k, 0);
+    }
+
+    /**
+     * Selects the first k items of the list obtained by sorting the given iterable on the given argument with the
+     * given option and the DESCENDING one toggled, so, for example, the items having the highest values when the option is 0.
+     * Only k items are kept while iterating, so this is cheaper than sorting all the items when k is small.
+     * @param iterable The iterable of objects to be selected
+     * @param argument An argument defined using the {@link Lambda#on(Class)} method
+     * @param k The maximum number of items to be selected
+     * @param option  Sorting option e.g.: DESCENDING + IGNORE_CASE
+     * @return A List with the top k items on the given argument
+     */
+    public static <T> List<T> top(Object iterable, Object argument, int k, int option) {
+        return bottom(iterable, argument, k, option ^ DESCENDING);
+    }
+
+    /**
+     * Selects the k items in the given iterable having the lowest values of the given argument, sorted in ascending order.
+     * Only k items are kept while iterating, so this is cheaper than sorting all the items when k is small.
+     * @param iterable The iterable of objects to be selected
+     * @param argument An argument defined using the {@link Lambda#on(Class)} method
+     * @param k The maximum number of items to be selected
+     * @return A List with the k items having the lowest values of the given argument
+     */
+    public static <T> List<T> bottom(Object iterable, Object argument, int k) {
+        return bottom(iterable, argument, k, 0);
+    }
+
+    /**
+     * Selects the first k items of the list obtained by sorting the given iterable on the given argument with the given option.
+     * Only k items are kept while iterating, so this is cheaper than sorting all the items when k is small.
+     * @param iterable The iterable of objects to be selected
+     * @param argument An argument defined using the {@link Lambda#on(Class)} method
+     * @param k The maximum number of items to be selected
+     * @param option  Sorting option e.g.: DESCENDING + IGNORE_CASE
+     * @return A List with the bottom k items on the given argument
+     */
+    public static <T> List<T> bottom(Object iterable, Object argument, int k, int option) {
+        return ArgumentSorter.selectFirst(asIterator(iterable), actualArgument(argument), getStandardComparator(option), k);
+    }
+
     /**
      * Counts the number of occurrencies of the objects in the given iterable
      * Actually it handles also Maps, Arrays and Iterator by collecting their values.
@@ -294,6 +439,16 @@ public final class Lambda {
         return count(extract(iterable, argument));
     }
 
+    /**
+     * Counts the number of occurrencies of the argument's value in the objects of the given iterable
+     * @param iterable The iterable of objects' arguments to be counted
+     * @param argument An argument obtained through the {@link Lambda#argument(Object)} method
+     * @return A map having as values the number of occurrencies of the corresponding object's argument in the given iterable
+     */
+    public static <A> Map<A, Integer> count(Object iterable, Argument<A> argument) {
+        return count(extract(iterable, argument));
+    }
+
 	// ////////////////////////////////////////////////////////////////////////
 	// /// Selection
 	// ////////////////////////////////////////////////////////////////////////
@@ -318,6 +473,22 @@ public final class Lambda {
         return select(array, matcher);
     }
 
+    /**
+     * Wraps the given iterable in a lazy LambdaIterator, allowing to chain operations like in:
+     * <pre>
+     *      Iterator&lt;Integer&gt; ages = from(persons).retain(having(on(Person.class).getAge(), greaterThan(30))).limit(10).extract(on(Person.class).getAge());
+     * </pre>
+     * All the steps are fused in a single iteration done while the resulting iterator is consumed: no intermediate
+     * collection is built and no item of the given iterable is read after the last one needed to satisfy the limit.
+     * Actually it handles also Maps, Arrays and Iterator by iterating on their values.
+     * @param iterable The iterable of objects to be wrapped
+     * @return A LambdaIterator lazily iterating on the given iterable
+     * @throws IllegalArgumentException if the iterable is not an Iterable
+     */
+    public static <T> LambdaIterator<T> from(Object iterable) {
+        return LambdaCollections.with((Iterator<T>)asIterator(iterable));
+    }
+
 	/**
 	 * Selects all the objects in the given iterator that match the given hamcrest Matcher
 	 * @param iterator The iterator of objects to be filtered
@@ -510,6 +681,7 @@ public final class Lambda {
     private static final Sum SUM = new Sum();
 	private static final Min MIN = new Min();
 	private static final Max MAX = new Max();
+	private static final Avg AVG = new Avg();
 	private static final Concat CONCAT = new Concat();
 
 	/**
@@ -539,6 +711,34 @@ public final class Lambda {
 	public static <T, A> T aggregate(Object iterable, Aggregator<T> aggregator, A argument) {
 		return aggregate(convertIterator(iterable, new ArgumentConverter<T, A>(argument)), aggregator);
 	}
+
+    /**
+     * Aggregates the items in the given iterable using the given {@link CombinableAggregator}.
+     * Lists allowing random access and arrays are split in chunks aggregated in parallel on a ForkJoinPool,
+     * while any other iterable is aggregated sequentially.
+     * @param iterable The iterable of the items to be aggregated
+     * @param aggregator The function that defines how the items in this iterable have to be accumulated and how the partial results have to be combined
+     * @return The result of the aggregation of all the items in the given iterable
+     * @throws IllegalArgumentException if the iterable is not an Iterable
+     */
+    public static <T> T parallelAggregate(Object iterable, CombinableAggregator<T, ?> aggregator) {
+        return ParallelAggregation.aggregate(iterable, aggregator, null);
+    }
+
+    /**
+     * For each item in the given iterable collects the value defined by the given argument and
+     * then aggregates them using the given {@link CombinableAggregator}.
+     * Lists allowing random access and arrays are split in chunks aggregated in parallel on a ForkJoinPool,
+     * while any other iterable is aggregated sequentially.
+     * @param iterable The iterable of the items to be aggregated
+     * @param aggregator The function that defines how the values have to be accumulated and how the partial results have to be combined
+     * @param argument An argument obtained through the {@link Lambda#argument(Object)} method
+     * @return The result of the aggregation of all the values extracted from the items in the given iterable
+     * @throws IllegalArgumentException if the iterable is not an Iterable
+     */
+    public static <T, A> T parallelAggregate(Object iterable, CombinableAggregator<T, ?> aggregator, Argument<A> argument) {
+        return ParallelAggregation.aggregate(iterable, aggregator, (Converter<Object, T>)new ArgumentConverter<Object, A>(argument));
+    }
 	
 	/**
 	 * Returns a lambda function defined as:
@@ -597,8 +797,56 @@ public final class Lambda {
 	 * @throws IllegalArgumentException if the iterable is not an Iterable
 	 */
 	public static <T> T sum(Object iterable, T argument) {
-        return (T)typedSum(convertIterator(iterable, new ArgumentConverter<Object, T>(argument)), argument.getClass());
+        return sum(iterable, actualArgument(argument));
+	}
+
+	/**
+	 * Sums the property values of the items in the given iterable defined by the given argument.
+	 * @param iterable The iterable of items containing the property of which the values have to be summed.
+	 * @param argument An argument obtained through the {@link Lambda#argument(Object)} method
+	 * @return The sum of the property values extracted from all the items in the given iterable
+	 * @throws IllegalArgumentException if the iterable is not an Iterable
+	 */
+	public static <T> T sum(Object iterable, Argument<T> argument) {
+        if (isPrimitiveAggregable(argument)) return (T)primitiveSum(iterable, argument);
+        return (T)typedSum(convertIterator(iterable, new ArgumentConverter<Object, T>(argument)), argument.getReturnType());
 	}
+
+    /**
+     * Sums the items in the given list or array of Numbers splitting them in chunks summed in parallel.
+     * Any other iterable is summed sequentially.
+     * @param iterable The iterable of numbers to be summed
+     * @return The sum of all the Number in the given iterable or the iterable itself if it actually is already a single number
+     * @throws IllegalArgumentException if the iterable is not neither an Iterable nor a Number
+     */
+    public static Number parallelSum(Object iterable) {
+        if (iterable instanceof Number) return (Number)iterable;
+        return parallelAggregate(iterable, new Sum(0.0));
+    }
+
+    /**
+     * Sums the property values of the items in the given list or array splitting them in chunks summed in parallel.
+     * Any other iterable is summed sequentially.
+     * @param iterable The iterable of items containing the property of which the values have to be summed.
+     * @param argument An argument defined using the {@link Lambda#on(Class)} method
+     * @return The sum of the property values extracted from all the items in the given iterable
+     * @throws IllegalArgumentException if the iterable is not an Iterable
+     */
+    public static <T> T parallelSum(Object iterable, T argument) {
+        return parallelSum(iterable, actualArgument(argument));
+    }
+
+    /**
+     * Sums the property values of the items in the given list or array splitting them in chunks summed in parallel.
+     * Any other iterable is summed sequentially.
+     * @param iterable The iterable of items containing the property of which the values have to be summed.
+     * @param argument An argument obtained through the {@link Lambda#argument(Object)} method
+     * @return The sum of the property values extracted from all the items in the given iterable
+     * @throws IllegalArgumentException if the iterable is not an Iterable
+     */
+    public static <T> T parallelSum(Object iterable, Argument<T> argument) {
+        return (T)parallelAggregate(iterable, new Sum(typedZero(argument.getReturnType())), argument);
+    }
 	
     private static Number typedSum(Object iterable, Class<?> numberClass) {
         if (iterable instanceof Number) return (Number)iterable;
@@ -606,10 +854,15 @@ public final class Lambda {
         return iterator.hasNext() ? aggregate(iterator, getSumAggregator(iterator.next())) : typedZero(numberClass);
     }
 
+    private static Number primitiveSum(Object iterable, Argument<?> argument) {
+        Number sum = PrimitiveAggregation.aggregate(asIterator(iterable), argument, SUM);
+        return sum != null ? sum : typedZero(argument.getReturnType());
+    }
+
     private static Number typedZero(Class<?> numberClass) {
-        if (numberClass == Long.class) return 0L;
-        if (numberClass == Double.class) return 0.0;
-        if (numberClass == Float.class) return 0.0f;
+        if (numberClass == Long.class || numberClass == Long.TYPE) return 0L;
+        if (numberClass == Double.class || numberClass == Double.TYPE) return 0.0;
+        if (numberClass == Float.class || numberClass == Float.TYPE) return 0.0f;
         if (BigInteger.class.isAssignableFrom(numberClass)) return BigInteger.ZERO;
         if (BigDecimal.class.isAssignableFrom(numberClass)) return BigDecimal.ZERO;
         return 0;
@@ -682,13 +935,30 @@ public final class Lambda {
      * @throws IllegalArgumentException if the iterable is not an Iterable
      */
     public static <T> T avg(Object iterable, T argument) {
-        return (T)typedAvg(convertIterator(iterable, new ArgumentConverter<Object, T>(argument)), argument.getClass());
+        return avg(iterable, actualArgument(argument));
+    }
+
+    /**
+     * Calculates the average of the property values of the items in the given iterable defined by the given argument.
+     * @param iterable The iterable of items containing the property for which the average of its the values has to be calculated.
+     * @param argument An argument obtained through the {@link Lambda#argument(Object)} method
+     * @return The average of the property values extracted from all the items in the given iterable
+     * @throws IllegalArgumentException if the iterable is not an Iterable
+     */
+    public static <T> T avg(Object iterable, Argument<T> argument) {
+        if (isPrimitiveAggregable(argument)) return (T)primitiveAvg(iterable, argument);
+        return (T)typedAvg(convertIterator(iterable, new ArgumentConverter<Object, T>(argument)), argument.getReturnType());
     }
 
     private static Number typedAvg(Object iterable, Class<?> numberClass) {
         if (iterable instanceof Number) return (Number)iterable;
         Iterator<?> iterator = asIterator(iterable);
-        return iterator.hasNext() ? aggregate(iterator, new Avg()) : typedZero(numberClass);
+        return iterator.hasNext() ? aggregate(iterator, AVG) : typedZero(numberClass);
+    }
+
+    private static Number primitiveAvg(Object iterable, Argument<?> argument) {
+        Number avg = PrimitiveAggregation.average(asIterator(iterable), argument);
+        return avg != null ? avg : typedZero(argument.getReturnType());
     }
 
     /**
@@ -710,7 +980,7 @@ public final class Lambda {
      * @throws IllegalArgumentException if the iterable is null or empty
      */
     public static <T> T avgFrom(Iterable<T> iterable) {
-        return aggregateFrom(iterable, new Avg());
+        return aggregateFrom(iterable, AVG);
     }
 
     /**
@@ -731,7 +1001,7 @@ public final class Lambda {
      * @return A proxy of the class of the first object in the iterable representing a sum lambda function
      */
     public static <T> T avgFrom(Iterable<T> iterable, Class<?> clazz) {
-        return aggregateFrom(iterable, clazz, new Avg());
+        return aggregateFrom(iterable, clazz, AVG);
     }
 
 	// -- (Min) ---------------------------------------------------------------
@@ -758,6 +1028,18 @@ public final class Lambda {
 	 * @throws IllegalArgumentException if the iterable is not an Iterable
 	 */
 	public static <T> T min(Object iterable, T argument) {
+        return min(iterable, actualArgument(argument));
+	}
+
+	/**
+	 * Finds the minimum item in the given iterable defined by the given argument.
+	 * @param iterable The iterable of objects on which the minimum should be found
+	 * @param argument An argument obtained through the {@link Lambda#argument(Object)} method
+	 * @return The minimum of all the Object in the given iterable
+	 * @throws IllegalArgumentException if the iterable is not an Iterable
+	 */
+	public static <T> T min(Object iterable, Argument<T> argument) {
+        if (isPrimitiveAggregable(argument)) return (T)PrimitiveAggregation.aggregate(asIterator(iterable), argument, MIN);
 		return (T)aggregate(iterable, MIN, argument);
 	}
 	
@@ -830,6 +1112,18 @@ public final class Lambda {
 	 * @throws IllegalArgumentException if the iterable is not an Iterable
 	 */
 	public static <T> T max(Object iterable, T argument) {
+        return max(iterable, actualArgument(argument));
+	}
+
+	/**
+	 * Finds the maximum item in the given iterable defined by the given argument.
+	 * @param iterable The iterable of objects on which the maximum should be found
+	 * @param argument An argument obtained through the {@link Lambda#argument(Object)} method
+	 * @return The maximum of all the Object in the given iterable
+	 * @throws IllegalArgumentException if the iterable is not an Iterable
+	 */
+	public static <T> T max(Object iterable, Argument<T> argument) {
+        if (isPrimitiveAggregable(argument)) return (T)PrimitiveAggregation.aggregate(asIterator(iterable), argument, MAX);
 		return (T)aggregate(iterable, MAX, argument);
 	}
 	
@@ -878,6 +1172,46 @@ public final class Lambda {
 		return (T) aggregateFrom(iterable, clazz, MAX);
 	}
 
+	// -- (Stats) -------------------------------------------------------------
+
+    /**
+     * Calculates in a single pass the count, sum, minimum, maximum, average and variance of the Numbers in the given iterable.
+     * Actually it handles also Maps, Arrays and Iterator by collecting their values.
+     * Note that this method accepts an Object in order to be used in conjunction with the {@link Lambda#forEach(Iterable)}.
+     * @param iterable The iterable of numbers
+     * @return The statistics of the non null Numbers in the given iterable
+     * @throws IllegalArgumentException if the iterable is not an Iterable
+     */
+    public static Stats stats(Object iterable) {
+        return Stats.of(asIterator(iterable));
+    }
+
+    /**
+     * Calculates in a single pass the count, sum, minimum, maximum, average and variance of the property values
+     * of the items in the given iterable defined by the given argument.
+     * Actually it handles also Maps, Arrays and Iterator by collecting their values.
+     * Note that this method accepts an Object in order to be used in conjunction with the {@link Lambda#forEach(Iterable)}.
+     * @param iterable The iterable of items containing the property of which the statistics have to be calculated.
+     * @param argument An argument defined using the {@link Lambda#on(Class)} method
+     * @return The statistics of the non null property values extracted from all the items in the given iterable
+     * @throws IllegalArgumentException if the iterable is not an Iterable
+     */
+    public static <T> Stats stats(Object iterable, T argument) {
+        return Stats.of(asIterator(iterable), actualArgument(argument));
+    }
+
+    /**
+     * Calculates in a single pass the count, sum, minimum, maximum, average and variance of the property values
+     * of the items in the given iterable defined by the given argument.
+     * @param iterable The iterable of items containing the property of which the statistics have to be calculated.
+     * @param argument An argument obtained through the {@link Lambda#argument(Object)} method
+     * @return The statistics of the non null property values extracted from all the items in the given iterable
+     * @throws IllegalArgumentException if the iterable is not an Iterable
+     */
+    public static <T> Stats stats(Object iterable, Argument<T> argument) {
+        return Stats.of(asIterator(iterable), argument);
+    }
+
 	// -- (Join) --------------------------------------------------------------
 
 	/**
@@ -1054,6 +1388,17 @@ public final class Lambda {
         return convertMap(map, new ArgumentConverter<F, T>(argument));
     }
 
+    /**
+	 * Converts all the values in the map extracting the property defined by the given argument.
+	 * @param map The map containing the values to be converted
+	 * @param argument An argument obtained through the {@link Lambda#argument(Object)} method
+	 * @return A Map containing the same keys of the original one and the argument's value extracted from the value
+     *      in the corresponding entry of the map
+	 */
+    public static <K, F, T> Map<K, T> convertMap(Map<K, F> map, Argument<T> argument) {
+        return convertMap(map, new ArgumentConverter<F, T>(argument));
+    }
+
     /**
 	 * Converts all the object in the iterable extracting the property defined by the given argument.
      * Actually it handles also Maps, Arrays and Iterator by collecting their values.
@@ -1065,6 +1410,16 @@ public final class Lambda {
 	public static <F, T> List<T> extract(Object iterable, T argument) {
 		return convert(iterable, new ArgumentConverter<F, T>(argument));
 	}
+
+    /**
+	 * Converts all the object in the iterable extracting the property defined by the given argument.
+	 * @param iterable The iterable containing the objects to be converted
+	 * @param argument An argument obtained through the {@link Lambda#argument(Object)} method
+	 * @return A list containing the argument's value extracted from the object in the given iterable
+	 */
+	public static <F, T> List<T> extract(Object iterable, Argument<T> argument) {
+		return convert(iterable, new ArgumentConverter<F, T>(argument));
+	}
 	
     /**
      * Converts all the object in the iterable extracting the property defined by the given argument.
@@ -1079,6 +1434,16 @@ public final class Lambda {
     public static <F, T> Iterator<T> extractIterator(Object iterable, T argument) {
         return convertIterator(iterable, new ArgumentConverter<F, T>(argument));
     }
+
+    /**
+     * Lazily converts all the object in the iterable extracting the property defined by the given argument.
+     * @param iterable The iterable containing the objects to be converted
+     * @param argument An argument obtained through the {@link Lambda#argument(Object)} method
+     * @return An iterator over the argument's values extracted from the object in the given iterable
+     */
+    public static <F, T> Iterator<T> extractIterator(Object iterable, Argument<T> argument) {
+        return convertIterator(iterable, new ArgumentConverter<F, T>(argument));
+    }
     
 	/**
 	 * Converts all the object in the iterable in its String representation.
@@ -1133,6 +1498,16 @@ public final class Lambda {
 		return map(iterable, new ArgumentConverter<F, T>(argument));
 	}
 
+	/**
+	 * Indexes the objects in the given iterable based on the value of their argument.
+	 * @param iterable The iterable containing the objects to be indexed
+	 * @param argument An argument obtained through the {@link Lambda#argument(Object)} method
+	 * @return A map having as keys the argument value extracted from the objects in the given iterable and as values the corresponding objects
+	 */
+	public static <F, T> Map<T, F> index(Object iterable, Argument<T> argument) {
+		return map(iterable, new ArgumentConverter<F, T>(argument));
+	}
+
      /**
       * Converts the objects in the given iterable in objects of the given target Class.
       * The objects are created by invoking its constructor passing to it the values taken
@@ -1247,6 +1622,17 @@ public final class Lambda {
         return Groups.group(iterable, conditions);
     }
 
+    /**
+     * Organizes the given list of items in (hierarchy of) groups based on the given grouping conditions,
+     * splitting them in chunks grouped in parallel on the default ForkJoinPool of lambdaj.
+     * @param iterable The items to be grouped
+     * @param conditions The conditions that define how the items have to be grouped
+     * @return The items grouped by the given conditions
+     */
+    public static <T> Group<T> parallelGroup(Iterable<T> iterable, GroupCondition<?>... conditions) {
+        return Groups.parallelGroup(iterable, conditions);
+    }
+
 	// ////////////////////////////////////////////////////////////////////////
 	// /// Closure
 	// ////////////////////////////////////////////////////////////////////////
@@ -11,6 +11,7 @@ import java.util.*;
 
 import ch.lambdaj.*;
 import ch.lambdaj.function.convert.*;
+import ch.lambdaj.util.iterator.*;
 
 /**
  * An Iterator that extends the Iterator interface with the fluent interface methods provided by lambdaj
@@ -50,6 +51,16 @@ public class LambdaIterator<T> extends AbstractLambdaCollection<T> implements It
         return new LambdaIterator<V>(Lambda.extractIterator(innerIterator, argument));
     }
 
+    /**
+     * Limits this iterator to its first maxSize objects. The iteration stops as soon as the last of them has been
+     * returned, so the objects following it are never retained, converted or extracted by the former steps.
+     * @param maxSize The maximum number of objects to be returned
+     * @return A LambdaIterator containing at most the first maxSize objects in this iterator
+     */
+    public LambdaIterator<T> limit(int maxSize) {
+        return new LambdaIterator<T>(new LimitedIterator<T>((Iterator<T>)innerIterator, maxSize));
+    }
+
     // ////////////////////////////////////////////////////////////////////////
     // /// Iterator interface
     // ////////////////////////////////////////////////////////////////////////
@@ -0,0 +1,26 @@
+// Modified or written by Lambdascale SRL for inclusion with lambdaj.
+// Copyright (c) 2009-2010 Mario Fusco.
+// Licensed under the Apache License, Version 2.0 (the "License")
+
+package ch.lambdaj.function.aggregate;
+
+import java.util.*;
+
+/**
+ * A combinable aggregator that sequentially aggregates a collection by accumulating all its items,
+ * starting from the identity, in a single accumulation.
+ * @author Mario Fusco
+ */
+public abstract class AccumulatingAggregator<T, A> implements CombinableAggregator<T, A> {
+
+    /**
+     * Aggregates the objects in the given iterator by accumulating them in a new accumulation
+     * @param iterator The objects to be aggregated
+     * @return The result of the accumulation of all the objects
+     */
+    public T aggregate(Iterator<? extends T> iterator) {
+        A accumulation = identity();
+        if (iterator != null) while (iterator.hasNext()) { accumulation = accumulate(accumulation, iterator.next()); }
+        return result(accumulation);
+    }
+}
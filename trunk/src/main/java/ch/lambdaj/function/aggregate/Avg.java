@@ -1,29 +1,50 @@
 package ch.lambdaj.function.aggregate;
 
 import java.math.*;
-import java.util.*;
 
 /**
- * An aggregator calculating numbers' average
+ * An aggregator calculating numbers' average.
+ * The running total and count of each aggregation are kept in its own {@link Avg.Accumulation}, so a single
+ * instance of this aggregator can be reused for any number of aggregations, also concurrently.
  * @author Mario Fusco
  */
-public class Avg extends Sum {
+public class Avg extends AccumulatingAggregator<Number, Avg.Accumulation> {
 
-    int itemsCounter = 0;
+    private static final Sum SUM = new Sum();
 
     /**
      * {@inheritDoc}
      */
-    public Number aggregate(Iterator<? extends Number> iterator) {
-        return divide(super.aggregate(iterator), itemsCounter);
+    public Accumulation identity() {
+        return new Accumulation();
+    }
+
+    /**
+     * Accumulates a number in the total. The null items are not summed but counted.
+     * @param accumulation The total and the count of the numbers preceding the given one
+     * @param item The number to be accumulated
+     * @return The accumulation including the given number
+     */
+    public Accumulation accumulate(Accumulation accumulation, Number item) {
+        accumulation.total = SUM.accumulate(accumulation.total, item);
+        accumulation.count++;
+        return accumulation;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public Accumulation combine(Accumulation first, Accumulation second) {
+        first.total = SUM.combine(first.total, second.total);
+        first.count += second.count;
+        return first;
     }
 
     /**
      * {@inheritDoc}
      */
-    public Number aggregate(Number first, Number second) {
-        itemsCounter++;
-        return super.aggregate(first, second);
+    public Number result(Accumulation accumulation) {
+        return divide(SUM.result(accumulation.total), accumulation.count);
     }
 
     private Number divide(Number total, int count) {
@@ -36,4 +57,14 @@ public class Avg extends Sum {
         if (total instanceof BigDecimal) return ((BigDecimal)total).divide(new BigDecimal(count));
         throw new RuntimeException("Unknown number type");
     }
+
+    /**
+     * The running total and count of the numbers being averaged
+     */
+    public static final class Accumulation {
+        private Number total;
+        private int count;
+
+        private Accumulation() { }
+    }
 }
@@ -9,7 +9,7 @@ package ch.lambdaj.function.aggregate;
  * of a collection just by choosing one of them.
  * @author Mario Fusco
  */
-public abstract class Chooser<T> extends PairAggregator<T> {
+public abstract class Chooser<T> extends PairAggregator<T> implements CombinableAggregator<T, T> {
 
     /**
      * Chooses on the two items returning the non-null one if one of them is null or by applying
@@ -39,4 +39,36 @@ public abstract class Chooser<T> extends PairAggregator<T> {
 	public T emptyItem() {
 		return null;
 	}
+
+    /**
+     * {@inheritDoc}
+     */
+    public T identity() {
+        return null;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public T accumulate(T accumulation, T item) {
+        return aggregate(accumulation, item);
+    }
+
+    /**
+     * Combines two partial choices in the same way as two items, so the choice between equal items
+     * goes to the one belonging to the second chunk as it happens in a sequential aggregation
+     * @param first The item chosen in the first chunk
+     * @param second The item chosen in the second chunk
+     * @return The choosen item
+     */
+    public T combine(T first, T second) {
+        return aggregate(first, second);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public T result(T accumulation) {
+        return accumulation;
+    }
 }
@@ -0,0 +1,44 @@
+// Modified or written by Lambdascale SRL for inclusion with lambdaj.
+// Copyright (c) 2009-2010 Mario Fusco.
+// Licensed under the Apache License, Version 2.0 (the "License")
+
+package ch.lambdaj.function.aggregate;
+
+/**
+ * An aggregator that can aggregate separately different chunks of a collection and then combine their partial results.
+ * The items of each chunk are accumulated, starting from the identity, into an accumulation of type A, and the
+ * accumulations of contiguous chunks are combined preserving their order before being turned in the final result.
+ * An accumulation is never shared between two chunks, so it can be mutated and returned by the accumulate and combine methods.
+ * @author Mario Fusco
+ */
+public interface CombinableAggregator<T, A> extends Aggregator<T> {
+
+    /**
+     * Creates the accumulation from which the aggregation of a chunk of items starts
+     * @return An empty accumulation
+     */
+    A identity();
+
+    /**
+     * Accumulates an item into the given accumulation
+     * @param accumulation The accumulation of the items preceding the given one
+     * @param item The item to be accumulated
+     * @return The accumulation including the given item
+     */
+    A accumulate(A accumulation, T item);
+
+    /**
+     * Combines the accumulations of two contiguous chunks of items
+     * @param first The accumulation of the first chunk
+     * @param second The accumulation of the chunk following the first one
+     * @return The accumulation of both the chunks
+     */
+    A combine(A first, A second);
+
+    /**
+     * Turns an accumulation in the result of the aggregation
+     * @param accumulation The accumulation of all the aggregated items
+     * @return The result of the aggregation
+     */
+    T result(A accumulation);
+}
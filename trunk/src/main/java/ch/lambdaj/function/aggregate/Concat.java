@@ -10,7 +10,7 @@ import java.util.*;
  * An Aggregator that concats String or more generally the String representation of a given Object
  * @author Mario Fusco
  */
-public class Concat implements Aggregator<Object> {
+public class Concat implements CombinableAggregator<Object, StringBuilder> {
 
 	private final String separator;
 
@@ -56,4 +56,41 @@ public class Concat implements Aggregator<Object> {
         }
         return sb.toString();
     }
+
+    /**
+     * {@inheritDoc}
+     */
+    public StringBuilder identity() {
+        return new StringBuilder();
+    }
+
+    /**
+     * Appends the String representation of the given object, unless it is null or blank
+     * @param accumulation The concatenation of the objects preceding the given one
+     * @param item The object to be concatenated
+     * @return The concatenation including the given object
+     */
+    public StringBuilder accumulate(StringBuilder accumulation, Object item) {
+        if (item == null) return accumulation;
+        String itemAsString = item.toString();
+        if (itemAsString.trim().equals("")) return accumulation;
+        if (accumulation.length() > 0) accumulation.append(separator);
+        return accumulation.append(itemAsString);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public StringBuilder combine(StringBuilder first, StringBuilder second) {
+        if (second.length() == 0) return first;
+        if (first.length() == 0) return second;
+        return first.append(separator).append(second);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public Object result(StringBuilder accumulation) {
+        return accumulation.toString();
+    }
 }
@@ -0,0 +1,51 @@
+// Modified or written by Lambdascale SRL for inclusion with lambdaj.
+// Copyright (c) 2009-2010 Mario Fusco.
+// Licensed under the Apache License, Version 2.0 (the "License")
+
+package ch.lambdaj.function.aggregate;
+
+/**
+ * An aggregator counting the aggregated objects, including the null ones, and returning their number as a Long.
+ * @author Mario Fusco
+ */
+public class Count extends AccumulatingAggregator<Object, Count.Counter> {
+
+    /**
+     * {@inheritDoc}
+     */
+    public Counter identity() {
+        return new Counter();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public Counter accumulate(Counter accumulation, Object item) {
+        accumulation.count++;
+        return accumulation;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public Counter combine(Counter first, Counter second) {
+        first.count += second.count;
+        return first;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public Object result(Counter accumulation) {
+        return accumulation.count;
+    }
+
+    /**
+     * The number of the objects counted so far
+     */
+    public static final class Counter {
+        private long count;
+
+        private Counter() { }
+    }
+}
@@ -0,0 +1,20 @@
+// Modified or written by Lambdascale SRL for inclusion with lambdaj.
+// Copyright (c) 2009-2010 Mario Fusco.
+// Licensed under the Apache License, Version 2.0 (the "License")
+
+package ch.lambdaj.function.aggregate;
+
+/**
+ * Defines how to aggregate a pair of doubles without boxing them.
+ * @author Mario Fusco
+ */
+public interface DoubleAggregator {
+
+    /**
+     * Aggregates two doubles
+     * @param first The first double to be aggregated
+     * @param second The second double to be aggregated
+     * @return The aggregation of the two doubles
+     */
+    double aggregate(double first, double second);
+}
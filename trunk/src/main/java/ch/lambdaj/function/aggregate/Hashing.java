@@ -0,0 +1,54 @@
+// Modified or written by Lambdascale SRL for inclusion with lambdaj.
+// Copyright (c) 2009-2010 Mario Fusco.
+// Licensed under the Apache License, Version 2.0 (the "License")
+
+package ch.lambdaj.function.aggregate;
+
+/**
+ * Spreads the hashes of the items aggregated by the sketching aggregators over 64 bits.
+ * Numbers up to longs and doubles and strings are hashed from all their bits, so distinct values are told apart
+ * even when their 32 bits hash codes collide, while any other object is hashed from its hash code.
+ * @author Mario Fusco
+ */
+final class Hashing {
+
+    private Hashing() { }
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    /**
+     * Mixes the 64 bits of the given object with the finalization step of MurmurHash3
+     * @param object The object to be hashed
+     * @return A 64 bits hash of the given object
+     */
+    static long hash(Object object) {
+        return mix(bitsOf(object));
+    }
+
+    private static long bitsOf(Object object) {
+        if (object instanceof Long || object instanceof Integer || object instanceof Short || object instanceof Byte)
+            return ((Number)object).longValue();
+        if (object instanceof Double || object instanceof Float) return Double.doubleToLongBits(((Number)object).doubleValue());
+        if (object instanceof String) return fnv1a((String)object);
+        return object.hashCode();
+    }
+
+    private static long fnv1a(String string) {
+        long h = FNV_OFFSET_BASIS;
+        for (int i = 0; i < string.length(); i++) {
+            h ^= string.charAt(i);
+            h *= FNV_PRIME;
+        }
+        return h;
+    }
+
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
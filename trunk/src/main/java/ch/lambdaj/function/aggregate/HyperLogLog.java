@@ -0,0 +1,115 @@
+// Modified or written by Lambdascale SRL for inclusion with lambdaj.
+// Copyright (c) 2009-2010 Mario Fusco.
+// Licensed under the Apache License, Version 2.0 (the "License")
+
+package ch.lambdaj.function.aggregate;
+
+/**
+ * An aggregator estimating the number of distinct items in a collection using the HyperLogLog algorithm.
+ * It uses 2^precision bytes of memory regardless of the number of aggregated items and its relative standard error
+ * is about 1.04 / sqrt(2^precision), i.e. 0.8% with the default precision of 14. Null items are ignored.
+ * Numbers and strings are told apart by a 64 bits hash of their values, while any other item is told apart by its
+ * 32 bits hash code, so items having the same hash code are counted only once and the estimate cannot grow much
+ * beyond the 2^32 distinct hash codes.
+ * @author Mario Fusco
+ */
+public class HyperLogLog extends AccumulatingAggregator<Object, HyperLogLog.Registers> {
+
+    private static final int DEFAULT_PRECISION = 14;
+
+    private final int precision;
+
+    /**
+     * Creates an aggregator estimating the number of distinct items with the default precision of 14
+     */
+    public HyperLogLog() {
+        this(DEFAULT_PRECISION);
+    }
+
+    /**
+     * Creates an aggregator estimating the number of distinct items with the given precision
+     * @param precision The base 2 logarithm of the number of registers, between 4 and 18
+     */
+    public HyperLogLog(int precision) {
+        if (precision < 4 || precision > 18) throw new IllegalArgumentException("The precision must be between 4 and 18: " + precision);
+        this.precision = precision;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public Registers identity() {
+        return new Registers(precision);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public Registers accumulate(Registers accumulation, Object item) {
+        if (item != null) accumulation.add(Hashing.hash(item));
+        return accumulation;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public Registers combine(Registers first, Registers second) {
+        return first.merge(second);
+    }
+
+    /**
+     * Returns the estimated number of distinct items
+     * @param accumulation The registers in which the items have been accumulated
+     * @return A Long being the estimated number of distinct items
+     */
+    public Object result(Registers accumulation) {
+        return accumulation.estimate();
+    }
+
+    /**
+     * The registers keeping, for each bucket of hashes, the maximum rank of the hashes fallen into it
+     */
+    public static final class Registers {
+        private final int precision;
+        private final byte[] ranks;
+
+        private Registers(int precision) {
+            this.precision = precision;
+            this.ranks = new byte[1 << precision];
+        }
+
+        private void add(long hash) {
+            int index = (int)(hash >>> (64 - precision));
+            int rank = Long.numberOfLeadingZeros((hash << precision) | (1L << (precision - 1))) + 1;
+            if (rank > ranks[index]) ranks[index] = (byte)rank;
+        }
+
+        private Registers merge(Registers other) {
+            if (other.precision != precision) throw new IllegalArgumentException("Cannot merge registers with different precisions");
+            for (int i = 0; i < ranks.length; i++) {
+                if (other.ranks[i] > ranks[i]) ranks[i] = other.ranks[i];
+            }
+            return this;
+        }
+
+        private long estimate() {
+            int m = ranks.length;
+            double sum = 0.0;
+            int zeros = 0;
+            for (byte rank : ranks) {
+                sum += 1.0 / (1L << rank);
+                if (rank == 0) zeros++;
+            }
+            double estimate = alpha(m) * m * m / sum;
+            if (estimate <= 2.5 * m && zeros > 0) estimate = m * Math.log((double)m / zeros);
+            return Math.round(estimate);
+        }
+
+        private static double alpha(int m) {
+            if (m == 16) return 0.673;
+            if (m == 32) return 0.697;
+            if (m == 64) return 0.709;
+            return 0.7213 / (1.0 + 1.079 / m);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+// Modified or written by Lambdascale SRL for inclusion with lambdaj.
+// Copyright (c) 2009-2010 Mario Fusco.
+// Licensed under the Apache License, Version 2.0 (the "License")
+
+package ch.lambdaj.function.aggregate;
+
+/**
+ * Defines how to aggregate a pair of ints without boxing them.
+ * @author Mario Fusco
+ */
+public interface IntAggregator {
+
+    /**
+     * Aggregates two ints
+     * @param first The first int to be aggregated
+     * @param second The second int to be aggregated
+     * @return The aggregation of the two ints
+     */
+    int aggregate(int first, int second);
+}
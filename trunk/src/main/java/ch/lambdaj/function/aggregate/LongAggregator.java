@@ -0,0 +1,20 @@
+// Modified or written by Lambdascale SRL for inclusion with lambdaj.
+// Copyright (c) 2009-2010 Mario Fusco.
+// Licensed under the Apache License, Version 2.0 (the "License")
+
+package ch.lambdaj.function.aggregate;
+
+/**
+ * Defines how to aggregate a pair of longs without boxing them.
+ * @author Mario Fusco
+ */
+public interface LongAggregator {
+
+    /**
+     * Aggregates two longs
+     * @param first The first long to be aggregated
+     * @param second The second long to be aggregated
+     * @return The aggregation of the two longs
+     */
+    long aggregate(long first, long second);
+}
@@ -8,7 +8,7 @@ package ch.lambdaj.function.aggregate;
  * A chooser of the maximum value between two comparable
  * @author Mario Fusco
  */
-public class Max<T> extends Chooser<Comparable<T>> {
+public class Max<T> extends Chooser<Comparable<T>> implements PrimitiveAggregator {
 
     /**
      * Chooses the maximum value between two Comparable
@@ -21,4 +21,34 @@ public class Max<T> extends Chooser<Comparable<T>> {
 	protected Comparable<T> choose(Comparable<T> first, Comparable<T> second) {
 		return first.compareTo((T) second) > 0 ? first : second;
 	}
+
+    /**
+     * Chooses the maximum between two ints
+     * @param first The first int between which find the maximum
+     * @param second The second int between which find the maximum
+     * @return The biggest between the two ints
+     */
+    public int aggregate(int first, int second) {
+        return first > second ? first : second;
+    }
+
+    /**
+     * Chooses the maximum between two longs
+     * @param first The first long between which find the maximum
+     * @param second The second long between which find the maximum
+     * @return The biggest between the two longs
+     */
+    public long aggregate(long first, long second) {
+        return first > second ? first : second;
+    }
+
+    /**
+     * Chooses the maximum between two doubles consistently with {@link Double#compareTo(Double)}
+     * @param first The first double between which find the maximum
+     * @param second The second double between which find the maximum
+     * @return The biggest between the two doubles
+     */
+    public double aggregate(double first, double second) {
+        return Double.compare(first, second) > 0 ? first : second;
+    }
 }
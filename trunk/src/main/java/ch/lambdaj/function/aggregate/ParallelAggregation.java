@@ -0,0 +1,143 @@
+// Modified or written by Lambdascale SRL for inclusion with lambdaj.
+// Copyright (c) 2009-2010 Mario Fusco.
+// Licensed under the Apache License, Version 2.0 (the "License")
+
+package ch.lambdaj.function.aggregate;
+
+import static ch.lambdaj.util.iterator.IteratorFactory.*;
+
+import ch.lambdaj.function.convert.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * This class consists exclusively of static methods that aggregate a list or an array by splitting it in chunks
+ * aggregated in parallel on a ForkJoinPool and then combining their partial results.
+ * @author Mario Fusco
+ */
+public final class ParallelAggregation {
+
+    /**
+     * The minimum number of items aggregated sequentially by a single task
+     */
+    public static final int MIN_CHUNK_SIZE = 1024;
+
+    private static final int CHUNKS_PER_THREAD = 4;
+
+    private ParallelAggregation() { }
+
+    private static final class DefaultPoolHolder {
+        private static final ForkJoinPool POOL = new ForkJoinPool();
+    }
+
+    /**
+     * Returns the ForkJoinPool, having a thread for each available processor, used by default by the parallel operations of lambdaj
+     * @return The default ForkJoinPool of lambdaj
+     */
+    public static ForkJoinPool getDefaultPool() {
+        return DefaultPoolHolder.POOL;
+    }
+
+    /**
+     * Returns the number of items processed sequentially by a single task when the given number of items is split
+     * in chunks processed in parallel on the given pool. It is never smaller than {@link #MIN_CHUNK_SIZE}.
+     * @param pool The pool on which the chunks are processed
+     * @param size The number of items to be split in chunks
+     * @return The size of each chunk
+     */
+    public static int getChunkSize(ForkJoinPool pool, int size) {
+        return Math.max(MIN_CHUNK_SIZE, size / (pool.getParallelism() * CHUNKS_PER_THREAD));
+    }
+
+    /**
+     * Returns the items in the given iterable as a list allowing random access, so they can be split in chunks.
+     * Lists allowing random access are returned as they are and arrays of objects are wrapped,
+     * while the items of any other iterable are copied in a new list.
+     * @param iterable The iterable of the items to be split in chunks
+     * @return A list allowing random access containing the items in the given iterable
+     */
+    public static List<?> toRandomAccessList(Object iterable) {
+        List<?> items = asRandomAccessList(iterable);
+        if (items != null) return items;
+        List<Object> copy = new ArrayList<Object>();
+        for (Iterator<?> i = asIterator(iterable); i.hasNext();) { copy.add(i.next()); }
+        return copy;
+    }
+
+    /**
+     * Aggregates the items in the given iterable on the default ForkJoinPool of lambdaj, having a thread for each available processor.
+     * Lists allowing random access and arrays of objects are split in chunks aggregated in parallel,
+     * while any other iterable is aggregated sequentially in the calling thread.
+     * @param iterable The iterable of the items to be aggregated
+     * @param aggregator The aggregator defining how the items have to be accumulated and how the partial results have to be combined
+     * @param converter The converter applied to each item before accumulating it or null to accumulate the items themselves
+     * @return The result of the aggregation of all the items in the given iterable
+     */
+    public static <T, A> T aggregate(Object iterable, CombinableAggregator<T, A> aggregator, Converter<Object, ? extends T> converter) {
+        return aggregate(DefaultPoolHolder.POOL, iterable, aggregator, converter);
+    }
+
+    /**
+     * Aggregates the items in the given iterable on the given ForkJoinPool.
+     * Lists allowing random access and arrays of objects are split in chunks aggregated in parallel,
+     * while any other iterable is aggregated sequentially in the calling thread.
+     * @param pool The pool on which the chunks are aggregated
+     * @param iterable The iterable of the items to be aggregated
+     * @param aggregator The aggregator defining how the items have to be accumulated and how the partial results have to be combined
+     * @param converter The converter applied to each item before accumulating it or null to accumulate the items themselves
+     * @return The result of the aggregation of all the items in the given iterable
+     */
+    public static <T, A> T aggregate(ForkJoinPool pool, Object iterable, CombinableAggregator<T, A> aggregator, Converter<Object, ? extends T> converter) {
+        List<?> items = asRandomAccessList(iterable);
+        if (items == null) return aggregator.result(accumulate(asIterator(iterable), aggregator, converter));
+        int chunkSize = getChunkSize(pool, items.size());
+        if (items.size() <= chunkSize) return aggregator.result(accumulate(items.iterator(), aggregator, converter));
+        return aggregator.result(pool.invoke(new AggregationTask<T, A>(items, 0, items.size(), chunkSize, aggregator, converter)));
+    }
+
+    private static List<?> asRandomAccessList(Object iterable) {
+        if (iterable instanceof List && iterable instanceof RandomAccess) return (List<?>)iterable;
+        if (iterable instanceof Object[]) return Arrays.asList((Object[])iterable);
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T, A> A accumulate(Iterator<?> iterator, CombinableAggregator<T, A> aggregator, Converter<Object, ? extends T> converter) {
+        A accumulation = aggregator.identity();
+        while (iterator.hasNext()) {
+            Object item = iterator.next();
+            accumulation = aggregator.accumulate(accumulation, converter == null ? (T)item : converter.convert(item));
+        }
+        return accumulation;
+    }
+
+    private static final class AggregationTask<T, A> extends RecursiveTask<A> {
+
+        private final List<?> items;
+        private final int from;
+        private final int to;
+        private final int chunkSize;
+        private final CombinableAggregator<T, A> aggregator;
+        private final Converter<Object, ? extends T> converter;
+
+        private AggregationTask(List<?> items, int from, int to, int chunkSize, CombinableAggregator<T, A> aggregator, Converter<Object, ? extends T> converter) {
+            this.items = items;
+            this.from = from;
+            this.to = to;
+            this.chunkSize = chunkSize;
+            this.aggregator = aggregator;
+            this.converter = converter;
+        }
+
+        @Override
+        protected A compute() {
+            if (to - from <= chunkSize) return accumulate(items.subList(from, to).iterator(), aggregator, converter);
+            int middle = (from + to) >>> 1;
+            AggregationTask<T, A> firstHalf = new AggregationTask<T, A>(items, from, middle, chunkSize, aggregator, converter);
+            firstHalf.fork();
+            A second = new AggregationTask<T, A>(items, middle, to, chunkSize, aggregator, converter).compute();
+            return aggregator.combine(firstHalf.join(), second);
+        }
+    }
+}
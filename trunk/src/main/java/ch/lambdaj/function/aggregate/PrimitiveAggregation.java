@@ -0,0 +1,127 @@
+// Modified or written by Lambdascale SRL for inclusion with lambdaj.
+// Copyright (c) 2009-2010 Mario Fusco.
+// Licensed under the Apache License, Version 2.0 (the "License")
+
+package ch.lambdaj.function.aggregate;
+
+import ch.lambdaj.function.argument.*;
+
+import java.util.*;
+
+/**
+ * This class consists exclusively of static methods that aggregate the values of arguments returning an int,
+ * a long or a double accumulating them in primitive variables.
+ * The values are read through the argument's {@link PrimitiveInvoker}, so they are not boxed once the argument has been
+ * compiled through method handles, while they are still evaluated via reflection and boxed when the jitting is disabled.
+ * @author Mario Fusco
+ */
+public final class PrimitiveAggregation {
+
+    private PrimitiveAggregation() { }
+
+    /**
+     * Checks if the values of the given argument can be aggregated as primitives
+     * @param argument The argument to be checked
+     * @return True if the given argument returns an int, a long or a double
+     */
+    public static boolean isPrimitiveAggregable(Argument<?> argument) {
+        Class<?> type = argument.getReturnType();
+        return type == Integer.TYPE || type == Long.TYPE || type == Double.TYPE;
+    }
+
+    /**
+     * Aggregates the values of the given argument on the items of the given iterator. The null values, that the
+     * argument returns when any of the objects on which it invokes its methods is null, are ignored.
+     * @param iterator The iterator over the items on which the argument has to be evaluated
+     * @param argument An argument returning an int, a long or a double
+     * @param aggregator The aggregator defining how the values have to be aggregated
+     * @return The aggregation of the argument's values or null if there isn't any non null value
+     */
+    public static Number aggregate(Iterator<?> iterator, Argument<?> argument, PrimitiveAggregator aggregator) {
+        Class<?> type = argument.getReturnType();
+        if (type == Integer.TYPE) return aggregateInts(iterator, argument, aggregator);
+        if (type == Long.TYPE) return aggregateLongs(iterator, argument, aggregator);
+        if (type == Double.TYPE) return aggregateDoubles(iterator, argument, aggregator);
+        throw new IllegalArgumentException("Cannot aggregate as primitives the values of " + argument);
+    }
+
+    private static Integer aggregateInts(Iterator<?> iterator, Argument<?> argument, IntAggregator aggregator) {
+        boolean found = false;
+        int result = 0;
+        while (iterator.hasNext()) {
+            PrimitiveInvoker invoker = argument.getPrimitiveInvoker();
+            Object target = invoker.invokeTargetOn(iterator.next());
+            if (target == null) continue;
+            int value = invoker.invokeIntOn(target);
+            result = found ? aggregator.aggregate(result, value) : value;
+            found = true;
+        }
+        return found ? result : null;
+    }
+
+    private static Long aggregateLongs(Iterator<?> iterator, Argument<?> argument, LongAggregator aggregator) {
+        boolean found = false;
+        long result = 0L;
+        while (iterator.hasNext()) {
+            PrimitiveInvoker invoker = argument.getPrimitiveInvoker();
+            Object target = invoker.invokeTargetOn(iterator.next());
+            if (target == null) continue;
+            long value = invoker.invokeLongOn(target);
+            result = found ? aggregator.aggregate(result, value) : value;
+            found = true;
+        }
+        return found ? result : null;
+    }
+
+    private static Double aggregateDoubles(Iterator<?> iterator, Argument<?> argument, DoubleAggregator aggregator) {
+        boolean found = false;
+        double result = 0.0;
+        while (iterator.hasNext()) {
+            PrimitiveInvoker invoker = argument.getPrimitiveInvoker();
+            Object target = invoker.invokeTargetOn(iterator.next());
+            if (target == null) continue;
+            double value = invoker.invokeDoubleOn(target);
+            result = found ? aggregator.aggregate(result, value) : value;
+            found = true;
+        }
+        return found ? result : null;
+    }
+
+    /**
+     * Calculates the average of the values of the given argument on the items of the given iterator.
+     * As done by the {@link Avg} aggregator, the null values are not summed but counted.
+     * @param iterator The iterator over the items on which the argument has to be evaluated
+     * @param argument An argument returning an int, a long or a double
+     * @return The average of the argument's values or null if the iterator is empty
+     */
+    public static Number average(Iterator<?> iterator, Argument<?> argument) {
+        Class<?> type = argument.getReturnType();
+        if (type == Double.TYPE) return averageDoubles(iterator, argument);
+        if (type != Integer.TYPE && type != Long.TYPE) throw new IllegalArgumentException("Cannot aggregate as primitives the values of " + argument);
+
+        int count = 0;
+        long total = 0L;
+        while (iterator.hasNext()) {
+            PrimitiveInvoker invoker = argument.getPrimitiveInvoker();
+            Object target = invoker.invokeTargetOn(iterator.next());
+            if (target != null) total += invoker.invokeLongOn(target);
+            count++;
+        }
+        if (count == 0) return null;
+        if (type == Long.TYPE) return total / count;
+        // sums the ints in a long but overflows as the sum of Integers does
+        return (int)total / count;
+    }
+
+    private static Double averageDoubles(Iterator<?> iterator, Argument<?> argument) {
+        int count = 0;
+        double total = 0.0;
+        while (iterator.hasNext()) {
+            PrimitiveInvoker invoker = argument.getPrimitiveInvoker();
+            Object target = invoker.invokeTargetOn(iterator.next());
+            if (target != null) total += invoker.invokeDoubleOn(target);
+            count++;
+        }
+        return count == 0 ? null : total / count;
+    }
+}
@@ -0,0 +1,11 @@
+// Modified or written by Lambdascale SRL for inclusion with lambdaj.
+// Copyright (c) 2009-2010 Mario Fusco.
+// Licensed under the Apache License, Version 2.0 (the "License")
+
+package ch.lambdaj.function.aggregate;
+
+/**
+ * An aggregator that can aggregate ints, longs and doubles without boxing them.
+ * @author Mario Fusco
+ */
+public interface PrimitiveAggregator extends IntAggregator, LongAggregator, DoubleAggregator { }
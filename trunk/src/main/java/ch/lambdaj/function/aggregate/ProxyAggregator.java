@@ -26,8 +26,8 @@ public class ProxyAggregator<T, A> extends ProxyIterator<T> {
 
 	@Override
 	public Object invoke(Object obj, Method method, Object[] args) {
-		if(enabled) return normalizeResult(method.getReturnType(), aggregator.aggregate((Iterator<A>)iterateOnValues(method, args)));
-	    return null;
+		// the aggregator consumes the values only once, so there is no need to store them
+		return normalizeResult(method.getReturnType(), aggregator.aggregate((Iterator<A>)lazilyIterateOnValues(method, args)));
     }
 
     private Object normalizeResult(Class<?> expectedResultType, Object result) {
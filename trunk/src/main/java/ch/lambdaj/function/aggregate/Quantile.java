@@ -0,0 +1,208 @@
+// Modified or written by Lambdascale SRL for inclusion with lambdaj.
+// Copyright (c) 2009-2010 Mario Fusco.
+// Licensed under the Apache License, Version 2.0 (the "License")
+
+package ch.lambdaj.function.aggregate;
+
+import java.util.*;
+
+/**
+ * An aggregator estimating a quantile of a collection of numbers using a KLL sketch.
+ * The sketch keeps O(k) numbers regardless of the number of aggregated ones and the rank of the returned
+ * quantile has an error of about 1.7 / k relative to the number of aggregated items, i.e. less than 1% with the
+ * default k of 200. Null items are ignored.
+ * The compactions of the sketch are driven by a pseudo random sequence with a fixed seed, unless another one is given,
+ * so aggregating the same numbers in the same order always returns the same estimate.
+ * @author Mario Fusco
+ */
+public class Quantile extends AccumulatingAggregator<Number, Quantile.Sketch> {
+
+    private static final int DEFAULT_K = 200;
+    private static final long DEFAULT_SEED = 0x5DEECE66DL;
+
+    private final double quantile;
+    private final int k;
+    private final long seed;
+
+    /**
+     * Creates an aggregator estimating the given quantile with the default accuracy
+     * @param quantile The quantile to be estimated, between 0 and 1 (e.g. 0.5 for the median)
+     */
+    public Quantile(double quantile) {
+        this(quantile, DEFAULT_K);
+    }
+
+    /**
+     * Creates an aggregator estimating the given quantile with the accuracy defined by k
+     * @param quantile The quantile to be estimated, between 0 and 1 (e.g. 0.5 for the median)
+     * @param k The size of the biggest compactor of the sketch
+     */
+    public Quantile(double quantile, int k) {
+        this(quantile, k, DEFAULT_SEED);
+    }
+
+    /**
+     * Creates an aggregator estimating the given quantile with the accuracy defined by k
+     * @param quantile The quantile to be estimated, between 0 and 1 (e.g. 0.5 for the median)
+     * @param k The size of the biggest compactor of the sketch
+     * @param seed The seed of the pseudo random sequence choosing the items kept by the compactions
+     */
+    public Quantile(double quantile, int k, long seed) {
+        if (quantile < 0.0 || quantile > 1.0) throw new IllegalArgumentException("The quantile must be between 0 and 1: " + quantile);
+        if (k < 8) throw new IllegalArgumentException("The size of the sketch must be at least 8: " + k);
+        this.quantile = quantile;
+        this.k = k;
+        this.seed = seed;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public Sketch identity() {
+        return new Sketch(k, seed);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public Sketch accumulate(Sketch accumulation, Number item) {
+        if (item != null) accumulation.update(item.doubleValue());
+        return accumulation;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public Sketch combine(Sketch first, Sketch second) {
+        return first.merge(second);
+    }
+
+    /**
+     * Returns the estimated quantile
+     * @param accumulation The sketch in which the numbers have been accumulated
+     * @return A Double being the estimated quantile or null if no number has been aggregated
+     */
+    public Number result(Sketch accumulation) {
+        return accumulation.getCount() == 0 ? null : accumulation.getQuantile(quantile);
+    }
+
+    /**
+     * A KLL sketch made of a hierarchy of compactors: when a compactor is full its sorted items are halved by keeping
+     * randomly either the odd or the even ones, that are promoted to the next compactor where they weight twice as much.
+     */
+    public static final class Sketch {
+        private final int k;
+        private final List<Compactor> compactors = new ArrayList<Compactor>();
+        private final Random random;
+        private long count = 0;
+
+        private Sketch(int k, long seed) {
+            this.k = k;
+            random = new Random(seed);
+            compactors.add(new Compactor());
+        }
+
+        /**
+         * Returns the number of numbers accumulated in this sketch
+         * @return The number of accumulated numbers
+         */
+        public long getCount() {
+            return count;
+        }
+
+        /**
+         * Estimates the given quantile of the numbers accumulated in this sketch
+         * @param quantile The quantile to be estimated, between 0 and 1
+         * @return The estimated quantile or NaN if this sketch is empty
+         */
+        public double getQuantile(double quantile) {
+            int size = 0;
+            for (Compactor compactor : compactors) size += compactor.size;
+            if (size == 0) return Double.NaN;
+
+            final double[] values = new double[size];
+            long[] weights = new long[size];
+            Integer[] order = new Integer[size];
+            int i = 0;
+            for (int level = 0; level < compactors.size(); level++) {
+                Compactor compactor = compactors.get(level);
+                for (int j = 0; j < compactor.size; j++) {
+                    values[i] = compactor.items[j];
+                    weights[i] = 1L << level;
+                    order[i] = i;
+                    i++;
+                }
+            }
+            Arrays.sort(order, new Comparator<Integer>() {
+                public int compare(Integer i1, Integer i2) {
+                    return Double.compare(values[i1], values[i2]);
+                }
+            });
+
+            long totalWeight = 0;
+            for (long weight : weights) totalWeight += weight;
+            double rank = quantile * totalWeight;
+            long cumulativeWeight = 0;
+            for (Integer index : order) {
+                cumulativeWeight += weights[index];
+                if (cumulativeWeight >= rank) return values[index];
+            }
+            return values[order[size - 1]];
+        }
+
+        private void update(double value) {
+            compactors.get(0).add(value);
+            count++;
+            compress();
+        }
+
+        private Sketch merge(Sketch other) {
+            for (int level = 0; level < other.compactors.size(); level++) {
+                if (level == compactors.size()) compactors.add(new Compactor());
+                Compactor compactor = compactors.get(level);
+                Compactor otherCompactor = other.compactors.get(level);
+                for (int j = 0; j < otherCompactor.size; j++) compactor.add(otherCompactor.items[j]);
+            }
+            count += other.count;
+            compress();
+            return this;
+        }
+
+        private void compress() {
+            for (int level = 0; level < compactors.size(); level++) {
+                Compactor compactor = compactors.get(level);
+                if (compactor.size < capacity(level)) continue;
+                if (level + 1 == compactors.size()) compactors.add(new Compactor());
+                compactor.compactInto(compactors.get(level + 1), random.nextBoolean());
+            }
+        }
+
+        private int capacity(int level) {
+            int depth = compactors.size() - level - 1;
+            return Math.max(2, (int)Math.ceil(k * Math.pow(2.0 / 3.0, depth)));
+        }
+    }
+
+    private static final class Compactor {
+        private double[] items = new double[8];
+        private int size = 0;
+
+        private void add(double value) {
+            if (size == items.length) {
+                double[] grown = new double[size * 2];
+                System.arraycopy(items, 0, grown, 0, size);
+                items = grown;
+            }
+            items[size++] = value;
+        }
+
+        private void compactInto(Compactor next, boolean odd) {
+            Arrays.sort(items, 0, size);
+            // an odd item out stays in this compactor with its current weight
+            int compacted = size - (size % 2);
+            for (int i = odd ? 1 : 0; i < compacted; i += 2) next.add(items[i]);
+            if (compacted < size) items[0] = items[size - 1];
+            size -= compacted;
+        }
+    }
+}
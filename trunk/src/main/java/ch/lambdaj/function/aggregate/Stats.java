@@ -0,0 +1,227 @@
+// Modified or written by Lambdascale SRL for inclusion with lambdaj.
+// Copyright (c) 2009-2010 Mario Fusco.
+// Licensed under the Apache License, Version 2.0 (the "License")
+
+package ch.lambdaj.function.aggregate;
+
+import ch.lambdaj.function.argument.*;
+
+import java.util.*;
+
+/**
+ * The count, sum, minimum, maximum, average and variance of a set of numbers calculated in a single pass.
+ * The numbers are accumulated as doubles, but when all of them are integral (bytes, shorts, ints or longs) their sum,
+ * minimum and maximum are also kept exactly in longs. The null values are ignored, so the count is the one of the non null numbers and the
+ * average is the one of the non null numbers too. Note that this is different from {@link ch.lambdaj.Lambda#avg(Object)}
+ * that counts the null values, as if they were zeros.
+ * The variance is the population one and it is accumulated using the Welford's algorithm in order to be numerically stable.
+ * @author Mario Fusco
+ */
+public final class Stats {
+
+    private final long count;
+    private final double sum;
+    private final boolean integral;
+    private final long longSum;
+    private final long longMin;
+    private final long longMax;
+    private final double min;
+    private final double max;
+    private final double mean;
+    private final double m2;
+
+    private Stats(long count, double sum, boolean integral, long longSum, long longMin, long longMax, double min, double max, double mean, double m2) {
+        this.count = count;
+        this.sum = sum;
+        this.integral = integral;
+        this.longSum = longSum;
+        this.longMin = longMin;
+        this.longMax = longMax;
+        this.min = min;
+        this.max = max;
+        this.mean = mean;
+        this.m2 = m2;
+    }
+
+    /**
+     * Calculates the statistics of the numbers returned by the given iterator
+     * @param iterator The iterator over the numbers
+     * @return The statistics of the non null numbers
+     */
+    public static Stats of(Iterator<?> iterator) {
+        return of(iterator, null);
+    }
+
+    /**
+     * Calculates the statistics of the values of the given argument on the items returned by the given iterator
+     * @param iterator The iterator over the items on which the argument has to be evaluated
+     * @param argument An argument returning a number or null to calculate the statistics of the items themselves
+     * @return The statistics of the non null values of the argument
+     */
+    public static Stats of(Iterator<?> iterator, Argument<?> argument) {
+        long count = 0;
+        double sum = 0.0;
+        boolean integral = true;
+        long longSum = 0L;
+        long longMin = Long.MAX_VALUE;
+        long longMax = Long.MIN_VALUE;
+        double min = Double.NaN;
+        double max = Double.NaN;
+        double mean = 0.0;
+        double m2 = 0.0;
+        while (iterator.hasNext()) {
+            Object item = iterator.next();
+            Number value = (Number)(argument == null ? item : argument.evaluate(item));
+            if (value == null) continue;
+            double x = value.doubleValue();
+            if (count++ == 0) {
+                min = x;
+                max = x;
+            } else {
+                if (x < min) min = x;
+                if (x > max) max = x;
+            }
+            sum += x;
+            if (integral) {
+                integral = isIntegral(value);
+                long l = value.longValue();
+                longSum += l;
+                if (l < longMin) longMin = l;
+                if (l > longMax) longMax = l;
+            }
+            double delta = x - mean;
+            mean += delta / count;
+            m2 += delta * (x - mean);
+        }
+        return new Stats(count, sum, integral, longSum, longMin, longMax, min, max, mean, m2);
+    }
+
+    private static boolean isIntegral(Number value) {
+        return value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte;
+    }
+
+    /**
+     * Merges these statistics with the ones calculated on another set of numbers
+     * @param other The statistics to be merged with these ones
+     * @return The statistics of the union of the two sets of numbers
+     */
+    public Stats merge(Stats other) {
+        if (other.count == 0) return this;
+        if (count == 0) return other;
+        long mergedCount = count + other.count;
+        double delta = other.mean - mean;
+        return new Stats(mergedCount, sum + other.sum, integral && other.integral, longSum + other.longSum,
+                Math.min(longMin, other.longMin), Math.max(longMax, other.longMax), Math.min(min, other.min), Math.max(max, other.max),
+                mean + delta * other.count / mergedCount, m2 + other.m2 + delta * delta * count * other.count / mergedCount);
+    }
+
+    /**
+     * Returns the number of the non null values
+     * @return The number of the non null values
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Returns the sum of the values. When all the values are integral it is converted from their exact long sum.
+     * @return The sum of the values or 0 if there isn't any value
+     */
+    public double getSum() {
+        return integral ? longSum : sum;
+    }
+
+    /**
+     * Checks if all the values are integral, i.e. bytes, shorts, ints or longs, so their exact sum is available
+     * @return True if all the values are integral or there isn't any value
+     */
+    public boolean isIntegral() {
+        return integral;
+    }
+
+    /**
+     * Returns the exact sum of the values when they are all integral, that a double cannot represent above 2^53
+     * @return The exact sum of the values
+     * @throws IllegalStateException if any value isn't integral
+     */
+    public long getLongSum() {
+        if (!integral) throw new IllegalStateException("The sum of non integral values cannot be represented as a long");
+        return longSum;
+    }
+
+    /**
+     * Returns the minimum value. When all the values are integral it is converted from their exact long minimum.
+     * @return The minimum value or NaN if there isn't any value
+     */
+    public double getMin() {
+        return integral && count > 0 ? longMin : min;
+    }
+
+    /**
+     * Returns the exact minimum of the values when they are all integral, that a double cannot represent above 2^53
+     * @return The exact minimum of the values
+     * @throws IllegalStateException if any value isn't integral or there isn't any value
+     */
+    public long getLongMin() {
+        checkLongExtremes();
+        return longMin;
+    }
+
+    /**
+     * Returns the maximum value. When all the values are integral it is converted from their exact long maximum.
+     * @return The maximum value or NaN if there isn't any value
+     */
+    public double getMax() {
+        return integral && count > 0 ? longMax : max;
+    }
+
+    /**
+     * Returns the exact maximum of the values when they are all integral, that a double cannot represent above 2^53
+     * @return The exact maximum of the values
+     * @throws IllegalStateException if any value isn't integral or there isn't any value
+     */
+    public long getLongMax() {
+        checkLongExtremes();
+        return longMax;
+    }
+
+    private void checkLongExtremes() {
+        if (!integral) throw new IllegalStateException("The extremes of non integral values cannot be represented as longs");
+        if (count == 0) throw new IllegalStateException("There isn't any value");
+    }
+
+    /**
+     * Returns the average of the non null values
+     * @return The average of the values or 0 if there isn't any value
+     */
+    public double getAvg() {
+        return mean;
+    }
+
+    /**
+     * Returns the population variance of the values
+     * @return The population variance of the values or 0 if there isn't any value
+     */
+    public double getVariance() {
+        return count == 0 ? 0.0 : m2 / count;
+    }
+
+    /**
+     * Returns the population standard deviation of the values
+     * @return The population standard deviation of the values or 0 if there isn't any value
+     */
+    public double getStandardDeviation() {
+        return Math.sqrt(getVariance());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        boolean exact = integral && count > 0;
+        return "count=" + count + ", sum=" + (integral ? String.valueOf(longSum) : String.valueOf(sum)) +
+                ", min=" + (exact ? String.valueOf(longMin) : String.valueOf(min)) + ", max=" + (exact ? String.valueOf(longMax) : String.valueOf(max)) +
+                ", avg=" + mean + ", variance=" + getVariance();
+    }
+}
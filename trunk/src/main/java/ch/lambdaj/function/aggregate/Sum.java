@@ -10,7 +10,7 @@ import java.math.*;
  * An aggregator that sums numbers
  * @author Mario Fusco
  */
-public class Sum extends InitializedPairAggregator<Number> {
+public class Sum extends InitializedPairAggregator<Number> implements PrimitiveAggregator, CombinableAggregator<Number, Number> {
 
     /**
      * Creates an aggregator that sums numbers
@@ -69,4 +69,71 @@ public class Sum extends InitializedPairAggregator<Number> {
     private BigDecimal aggregate(Number first, BigDecimal second) {
         return (first == null || !(first instanceof BigDecimal) ? BigDecimal.ZERO : (BigDecimal)first).add(second);
     }
+
+    /**
+     * Returns null meaning that nothing has been summed yet, so the first item of this aggregator
+     * is summed only once in the result regardless of how many chunks are accumulated
+     * @return null
+     */
+    public Number identity() {
+        return null;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public Number accumulate(Number accumulation, Number item) {
+        if (accumulation == null) return item;
+        return item == null ? accumulation : aggregate(accumulation, item);
+    }
+
+    /**
+     * Sums two partial sums. As in a sequential sum, whose result has the type of the last summed number,
+     * the result has the type of the second partial sum, i.e. of the last number in the second chunk
+     * @param first The sum of the first chunk
+     * @param second The sum of the second chunk
+     * @return The sum of the two partial sums
+     */
+    public Number combine(Number first, Number second) {
+        if (first == null) return second;
+        if (second == null) return first;
+        return aggregate(first, second);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public Number result(Number accumulation) {
+        return accumulation == null ? emptyItem() : aggregate(emptyItem(), accumulation);
+    }
+
+    /**
+     * Sums two ints
+     * @param first The first int to be summed
+     * @param second The second int to be summed
+     * @return The sum of the two ints
+     */
+    public int aggregate(int first, int second) {
+        return first + second;
+    }
+
+    /**
+     * Sums two longs
+     * @param first The first long to be summed
+     * @param second The second long to be summed
+     * @return The sum of the two longs
+     */
+    public long aggregate(long first, long second) {
+        return first + second;
+    }
+
+    /**
+     * Sums two doubles
+     * @param first The first double to be summed
+     * @param second The second double to be summed
+     * @return The sum of the two doubles
+     */
+    public double aggregate(double first, double second) {
+        return first + second;
+    }
 }
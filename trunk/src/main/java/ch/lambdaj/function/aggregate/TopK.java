@@ -0,0 +1,161 @@
+// Modified or written by Lambdascale SRL for inclusion with lambdaj.
+// Copyright (c) 2009-2010 Mario Fusco.
+// Licensed under the Apache License, Version 2.0 (the "License")
+
+package ch.lambdaj.function.aggregate;
+
+import java.util.*;
+
+/**
+ * An aggregator finding the k most frequent items in a collection without counting all the distinct items.
+ * The frequencies are estimated by a Count-Min sketch, that overestimates the frequency of an item of at most
+ * epsilon times the number of aggregated items with probability 1 - delta, while only the k items having the highest
+ * estimated frequency are kept as candidates. Null items are ignored.
+ * @author Mario Fusco
+ */
+public class TopK extends AccumulatingAggregator<Object, TopK.Sketch> {
+
+    private final int k;
+    private final int depth;
+    private final int width;
+
+    /**
+     * Creates an aggregator finding the k most frequent items with an error of 0.1% with probability 99%
+     * @param k The number of most frequent items to be found
+     */
+    public TopK(int k) {
+        this(k, 0.001, 0.01);
+    }
+
+    /**
+     * Creates an aggregator finding the k most frequent items with the given error and probability
+     * @param k The number of most frequent items to be found
+     * @param epsilon The maximum overestimation of a frequency relative to the number of aggregated items
+     * @param delta The probability of exceeding the maximum overestimation
+     */
+    public TopK(int k, double epsilon, double delta) {
+        if (k < 1) throw new IllegalArgumentException("The number of items to be found must be positive: " + k);
+        if (epsilon <= 0.0 || delta <= 0.0 || delta >= 1.0) throw new IllegalArgumentException("Invalid error bounds: epsilon = " + epsilon + ", delta = " + delta);
+        this.k = k;
+        this.width = (int)Math.ceil(Math.E / epsilon);
+        this.depth = (int)Math.ceil(Math.log(1.0 / delta));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public Sketch identity() {
+        return new Sketch(k, depth, width);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public Sketch accumulate(Sketch accumulation, Object item) {
+        if (item != null) accumulation.add(item);
+        return accumulation;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public Sketch combine(Sketch first, Sketch second) {
+        return first.merge(second);
+    }
+
+    /**
+     * Returns the most frequent items with their estimated frequencies
+     * @param accumulation The sketch in which the items have been accumulated
+     * @return A Map having as keys at most k items sorted from the most frequent one and as values their estimated frequencies
+     */
+    public Object result(Sketch accumulation) {
+        return accumulation.getTopItems();
+    }
+
+    /**
+     * The Count-Min sketch estimating the frequencies of the aggregated items together with the most frequent ones
+     */
+    public static final class Sketch {
+        private final int k;
+        private final int depth;
+        private final int width;
+        private final long[] counters;
+        private final Map<Object, Long> candidates = new HashMap<Object, Long>();
+        private long minCandidateFrequency = 0;
+
+        private Sketch(int k, int depth, int width) {
+            this.k = k;
+            this.depth = depth;
+            this.width = width;
+            this.counters = new long[depth * width];
+        }
+
+        private void add(Object item) {
+            long hash = Hashing.hash(item);
+            long frequency = Long.MAX_VALUE;
+            for (int row = 0; row < depth; row++) {
+                frequency = Math.min(frequency, ++counters[index(hash, row)]);
+            }
+            offer(item, frequency);
+        }
+
+        private long estimate(Object item) {
+            long hash = Hashing.hash(item);
+            long frequency = Long.MAX_VALUE;
+            for (int row = 0; row < depth; row++) {
+                frequency = Math.min(frequency, counters[index(hash, row)]);
+            }
+            return frequency;
+        }
+
+        private int index(long hash, int row) {
+            int combined = (int)hash + row * (int)(hash >>> 32);
+            return row * width + (combined & Integer.MAX_VALUE) % width;
+        }
+
+        private void offer(Object item, long frequency) {
+            if (candidates.containsKey(item) || candidates.size() < k) {
+                candidates.put(item, frequency);
+                return;
+            }
+            // the candidates' frequencies never decrease, so the cached minimum is a lower bound of the actual one
+            if (frequency <= minCandidateFrequency) return;
+            Object minCandidate = null;
+            long minFrequency = Long.MAX_VALUE;
+            for (Map.Entry<Object, Long> candidate : candidates.entrySet()) {
+                if (candidate.getValue() < minFrequency) {
+                    minCandidate = candidate.getKey();
+                    minFrequency = candidate.getValue();
+                }
+            }
+            minCandidateFrequency = minFrequency;
+            if (frequency > minFrequency) {
+                candidates.remove(minCandidate);
+                candidates.put(item, frequency);
+            }
+        }
+
+        private Sketch merge(Sketch other) {
+            if (other.depth != depth || other.width != width) throw new IllegalArgumentException("Cannot merge sketches with different sizes");
+            for (int i = 0; i < counters.length; i++) counters[i] += other.counters[i];
+            Set<Object> items = new HashSet<Object>(candidates.keySet());
+            items.addAll(other.candidates.keySet());
+            candidates.clear();
+            minCandidateFrequency = 0;
+            for (Object item : items) offer(item, estimate(item));
+            return this;
+        }
+
+        private Map<Object, Long> getTopItems() {
+            List<Map.Entry<Object, Long>> entries = new ArrayList<Map.Entry<Object, Long>>(candidates.entrySet());
+            Collections.sort(entries, new Comparator<Map.Entry<Object, Long>>() {
+                public int compare(Map.Entry<Object, Long> e1, Map.Entry<Object, Long> e2) {
+                    return e2.getValue().compareTo(e1.getValue());
+                }
+            });
+            Map<Object, Long> topItems = new LinkedHashMap<Object, Long>();
+            for (Map.Entry<Object, Long> entry : entries) topItems.put(entry.getKey(), entry.getValue());
+            return topItems;
+        }
+    }
+}
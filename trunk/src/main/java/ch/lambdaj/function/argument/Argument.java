@@ -21,6 +21,10 @@ public class Argument<T> {
     Argument(InvocationSequence invocationSequence) {
 		this.invocationSequence = invocationSequence;
 	}
+
+    InvocationSequence getInvocationSequence() {
+        return invocationSequence;
+    }
 	
 	/**
 	 * The JavaBean compatible names of the properties defined by the invocations sequence of this Argument.
@@ -41,12 +45,31 @@ public class Argument<T> {
         return (T)invocationSequence.evaluate(object);
 	}
 	
+	/**
+	 * Returns an invoker evaluating this argument without boxing the int, long or double returned by its last method.
+	 * Until this argument is compiled, because the jitting is disabled or its threshold hasn't been reached yet,
+	 * the returned invoker still evaluates it via reflection and unboxes its value.
+	 * Its primitive methods can be used only if the last method of this argument returns a number.
+	 * @return An invoker evaluating this argument as a primitive value
+	 */
+	public PrimitiveInvoker getPrimitiveInvoker() {
+		return invocationSequence.getPrimitiveInvoker();
+	}
+
 	/**
 	 * Returns the root class from which the sequence of method invocation defined by this argument starts
 	 */
 	public Class<?> getRootArgumentClass() {
 		return invocationSequence.getRootInvokedClass();
 	}
+
+	/**
+	 * Returns the class declaring the first method of the invocations sequence defined by this argument.
+	 * It can be a superclass of the root class, so this argument can be evaluated on any instance of it.
+	 */
+	public Class<?> getFirstMethodDeclaringClass() {
+		return invocationSequence.getFirstMethodDeclaringClass();
+	}
 	
 	/**
 	 * Returns the type returned by the last method of the invocations sequence represented by this Argument.
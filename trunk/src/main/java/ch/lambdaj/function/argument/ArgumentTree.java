@@ -0,0 +1,190 @@
+// Modified or written by Lambdascale SRL for inclusion with lambdaj.
+// Copyright (c) 2009-2010 Mario Fusco.
+// Licensed under the Apache License, Version 2.0 (the "License")
+
+package ch.lambdaj.function.argument;
+
+import java.util.*;
+
+/**
+ * Merges the invocation sequences of a set of arguments in a tree where the invocations shared by two or more
+ * arguments as a common prefix are evaluated only once for each object.
+ * For example the arguments <code>on(Sale.class).getBuyer().isMale()</code> and <code>on(Sale.class).getBuyer().getAge()</code>
+ * share the invocation of getBuyer(). Each branch of the tree is an invocation sequence on its own, so it is jitted
+ * as any other argument.
+ * @author Mario Fusco
+ */
+public final class ArgumentTree {
+
+    private static final int ROOT = -1;
+
+    private final EvaluationPoint[] points;
+    private final int[] pointsByArgument;
+
+    private ArgumentTree(EvaluationPoint[] points, int[] pointsByArgument) {
+        this.points = points;
+        this.pointsByArgument = pointsByArgument;
+    }
+
+    /**
+     * Creates the tree merging the invocation sequences of the given arguments
+     * @param arguments The arguments to be merged
+     * @return The tree of the given arguments, whose values are indexed in the same order of the arguments
+     */
+    public static ArgumentTree of(List<? extends Argument<?>> arguments) {
+        Node root = new Node(null);
+        Node[] leaves = new Node[arguments.size()];
+        for (int i = 0; i < leaves.length; i++) {
+            Node node = root;
+            for (Invocation invocation : invocationsOf(arguments.get(i).getInvocationSequence())) node = node.child(invocation);
+            node.isLeaf = true;
+            leaves[i] = node;
+        }
+
+        List<EvaluationPoint> points = new ArrayList<EvaluationPoint>();
+        for (Node child : root.children.values()) collectEvaluationPoints(child, child.invocation.getInvokedClass(), ROOT, new ArrayList<Invocation>(), points);
+
+        int[] pointsByArgument = new int[leaves.length];
+        for (int i = 0; i < leaves.length; i++) pointsByArgument[i] = leaves[i].pointIndex;
+        return new ArgumentTree(points.toArray(new EvaluationPoint[points.size()]), pointsByArgument);
+    }
+
+    private static List<Invocation> invocationsOf(InvocationSequence sequence) {
+        LinkedList<Invocation> invocations = new LinkedList<Invocation>();
+        for (Invocation invocation = sequence.lastInvocation; invocation != null; invocation = invocation.previousInvocation) {
+            invocations.addFirst(invocation);
+        }
+        return invocations;
+    }
+
+    private static void collectEvaluationPoints(Node node, Class<?> segmentRootClass, int parentPoint, List<Invocation> segment, List<EvaluationPoint> points) {
+        segment.add(node.invocation);
+        if (node.isLeaf || node.children.size() != 1) {
+            node.pointIndex = points.size();
+            points.add(new EvaluationPoint(parentPoint, sequenceOf(segmentRootClass, segment)));
+            for (Node child : node.children.values()) {
+                collectEvaluationPoints(child, child.invocation.getInvokedClass(), node.pointIndex, new ArrayList<Invocation>(), points);
+            }
+        } else {
+            collectEvaluationPoints(node.children.values().iterator().next(), segmentRootClass, parentPoint, segment, points);
+        }
+    }
+
+    private static InvocationSequence sequenceOf(Class<?> rootClass, List<Invocation> invocations) {
+        InvocationSequence sequence = new InvocationSequence(rootClass);
+        for (Invocation invocation : invocations) {
+            // the invocations are copied since their link to the previous invocation is owned by the original sequence
+            sequence = new InvocationSequence(sequence, new Invocation(invocation.getInvokedClass(), invocation.getInvokedMethod(), invocation.getConcreteArgs()));
+        }
+        return sequence;
+    }
+
+    /**
+     * Returns the number of arguments merged in this tree
+     * @return The number of arguments merged in this tree
+     */
+    public int size() {
+        return pointsByArgument.length;
+    }
+
+    /**
+     * Returns the number of invocation sequences actually evaluated to calculate the values of all the arguments in this tree
+     * @return The number of distinct invocation sequences in this tree
+     */
+    public int getEvaluationPointsCount() {
+        return points.length;
+    }
+
+    /**
+     * Starts the evaluation of the arguments in this tree on the given object.
+     * The returned Evaluation is not thread safe and lazily evaluates each invocation sequence at most once.
+     * @param object The object on which the arguments have to be evaluated
+     * @return The evaluation of the arguments on the given object
+     */
+    public Evaluation evaluate(Object object) {
+        return new Evaluation(object);
+    }
+
+    /**
+     * The lazy evaluation of the arguments of an ArgumentTree on a given object
+     */
+    public final class Evaluation {
+        private final Object object;
+        private final Object[] values = new Object[points.length];
+
+        private Evaluation(Object object) {
+            this.object = object;
+        }
+
+        /**
+         * Returns the value of the i-th argument of the tree on the object of this evaluation
+         * @param argumentIndex The index of the argument in the list from which the tree has been created
+         * @return The value of the argument
+         * @throws RuntimeException if the evaluation of the argument (or of a prefix it shares with another argument) failed
+         */
+        public Object get(int argumentIndex) {
+            return valueOf(pointsByArgument[argumentIndex]);
+        }
+
+        private Object valueOf(int pointIndex) {
+            if (pointIndex == ROOT) return object;
+            Object value = values[pointIndex];
+            if (value == null) {
+                try {
+                    EvaluationPoint point = points[pointIndex];
+                    Object root = valueOf(point.parent);
+                    value = root == null ? NULL_VALUE : wrapNull(point.sequence.evaluate(root));
+                } catch (RuntimeException e) {
+                    value = new Failure(e);
+                }
+                values[pointIndex] = value;
+            }
+            if (value instanceof Failure) throw ((Failure)value).exception;
+            return value == NULL_VALUE ? null : value;
+        }
+    }
+
+    private static final Object NULL_VALUE = new Object();
+
+    private static Object wrapNull(Object value) {
+        return value == null ? NULL_VALUE : value;
+    }
+
+    private static final class Failure {
+        private final RuntimeException exception;
+
+        private Failure(RuntimeException exception) {
+            this.exception = exception;
+        }
+    }
+
+    private static final class EvaluationPoint {
+        private final int parent;
+        private final InvocationSequence sequence;
+
+        private EvaluationPoint(int parent, InvocationSequence sequence) {
+            this.parent = parent;
+            this.sequence = sequence;
+        }
+    }
+
+    private static final class Node {
+        private final Invocation invocation;
+        private final Map<Invocation, Node> children = new LinkedHashMap<Invocation, Node>();
+        private boolean isLeaf;
+        private int pointIndex = ROOT;
+
+        private Node(Invocation invocation) {
+            this.invocation = invocation;
+        }
+
+        private Node child(Invocation invocation) {
+            Node child = children.get(invocation);
+            if (child == null) {
+                child = new Node(invocation);
+                children.put(invocation, child);
+            }
+            return child;
+        }
+    }
+}
@@ -6,8 +6,11 @@ package ch.lambdaj.function.argument;
 
 import java.lang.reflect.*;
 import java.util.*;
+import java.util.concurrent.*;
 import java.util.concurrent.atomic.*;
 
+import ch.lambdaj.util.*;
+
 import static ch.lambdaj.proxy.ProxyUtil.*;
 
 /**
@@ -19,11 +22,47 @@ public final class ArgumentsFactory {
     private ArgumentsFactory() { }
 
     /**
-     * Enable or disable the JIT optimization of lambdaj's arguments. Disabled by default
+     * Enable or disable the JIT optimization of lambdaj's arguments. Disabled by default.
+     * When enabled the arguments are compiled in background after their first evaluation.
      * @param enable True to enable the JIT optimization, false to disable it
      */
     public static void enableJitting(boolean enable) {
-        InvocationSequence.enableJitting(enable);
+        enableJitting(enable ? JitPolicy.background() : null);
+    }
+
+    /**
+     * Enable the JIT optimization of lambdaj's arguments using the given policy or disable it if the policy is null
+     * @param policy The policy defining when and in which thread the arguments are compiled, or null to disable the JIT optimization
+     */
+    public static void enableJitting(JitPolicy policy) {
+        InvocationSequence.enableJitting(policy);
+    }
+
+    /**
+     * Returns the counters of the cache that allows the arguments having the same invocation sequence to share
+     * the class generated when compiling it
+     * @return A snapshot of the hits, misses and generated classes of the jitted invokers' cache
+     */
+    public static JitStatistics getJitStatistics() {
+        return InvokerClassCache.getStatistics();
+    }
+
+    /**
+     * Compiles a chain of no-args methods, each one invoked on the result of the former, in an invoker that doesn't use
+     * reflection, regardless of the jitting policy. The returned invoker yields null as soon as any value in the chain is null.
+     * @param rootClass The class of the objects on which the returned invoker will be evaluated
+     * @param methods The no-args methods to be invoked in sequence
+     * @return An invoker evaluating the given chain of methods
+     */
+    public static Invoker compileInvocationChain(Class<?> rootClass, Method... methods) {
+        InvocationSequence sequence = new InvocationSequence(rootClass);
+        Class<?> invokedClass = rootClass;
+        for (Method method : methods) {
+            sequence = new InvocationSequence(sequence, new Invocation(invokedClass, method, null));
+            invokedClass = method.getReturnType();
+        }
+        ClassLoader classLoader = rootClass.getClassLoader();
+        return sequence.compile(classLoader != null ? classLoader : ArgumentsFactory.class.getClassLoader());
     }
 
 	// ////////////////////////////////////////////////////////////////////////
@@ -39,29 +78,32 @@ public final class ArgumentsFactory {
 		return createArgument(clazz, new InvocationSequence(clazz));
 	}
 	
-	private static final Map<InvocationSequence, Object> PLACEHOLDER_BY_INVOCATION = new WeakHashMap<InvocationSequence, Object>();
+	private static final ConcurrentWeakHashMap<InvocationSequence, Object> PLACEHOLDER_BY_INVOCATION = new ConcurrentWeakHashMap<InvocationSequence, Object>();
 
-	private static final Map<InvocationSequence, InvocationSequence> LIMITED_VALUE_INVOCATIONS = new HashMap<InvocationSequence, InvocationSequence>();
+	private static final ConcurrentMap<InvocationSequence, InvocationSequence> LIMITED_VALUE_INVOCATIONS = new ConcurrentHashMap<InvocationSequence, InvocationSequence>();
 
 	@SuppressWarnings("unchecked")
-	static synchronized <T> T createArgument(Class<T> clazz, InvocationSequence invocationSequence) {
+	static <T> T createArgument(Class<T> clazz, InvocationSequence invocationSequence) {
 		T placeholder = (T) PLACEHOLDER_BY_INVOCATION.get(invocationSequence);
-		if (placeholder == null) {
-            placeholder = registerNewArgument(clazz, invocationSequence);
-        } else if (isLimitedValues(placeholder)) {
-            LIMITED_VALUE_ARGUMENTS.get().setArgument(placeholder, new Argument<T>(LIMITED_VALUE_INVOCATIONS.get(invocationSequence)));
-        }
+		if (placeholder == null) return registerNewArgument(clazz, invocationSequence);
+        if (isLimitedValues(placeholder)) bindLimitedValuesArgument(placeholder, invocationSequence);
 		return placeholder;
 	}
 
     private static <T> T registerNewArgument(Class<T> clazz, InvocationSequence invocationSequence) {
         T placeholder = (T)createPlaceholder(clazz, invocationSequence);
-        PLACEHOLDER_BY_INVOCATION.put(invocationSequence, placeholder);
-        if (isLimitedValues(placeholder)) {
-            LIMITED_VALUE_INVOCATIONS.put(invocationSequence, invocationSequence);
-        }
+        if (isLimitedValues(placeholder)) LIMITED_VALUE_INVOCATIONS.putIfAbsent(invocationSequence, invocationSequence);
+        // the argument is bound before publishing its placeholder so other threads can never see an unbound placeholder
         bindArgument(placeholder, new Argument<T>(invocationSequence));
-        return placeholder;
+        T registeredPlaceholder = (T)PLACEHOLDER_BY_INVOCATION.putIfAbsent(invocationSequence, placeholder);
+        if (registeredPlaceholder == null) return placeholder;
+        // another thread registered the same invocation sequence in the meanwhile
+        if (isLimitedValues(registeredPlaceholder)) bindLimitedValuesArgument(registeredPlaceholder, invocationSequence);
+        return registeredPlaceholder;
+    }
+
+    private static <T> void bindLimitedValuesArgument(T placeholder, InvocationSequence invocationSequence) {
+        LIMITED_VALUE_ARGUMENTS.get().setArgument(placeholder, new Argument<T>(LIMITED_VALUE_INVOCATIONS.get(invocationSequence)));
     }
 
     private static Object createPlaceholder(Class<?> clazz, InvocationSequence invocationSequence) {
@@ -74,7 +116,7 @@ public final class ArgumentsFactory {
 	// /// Arguments
 	// ////////////////////////////////////////////////////////////////////////
 	
-	private static final Map<Object, Argument<?>> ARGUMENTS_BY_PLACEHOLDER = new WeakHashMap<Object, Argument<?>>();
+	private static final ConcurrentWeakHashMap<Object, Argument<?>> ARGUMENTS_BY_PLACEHOLDER = new ConcurrentWeakHashMap<Object, Argument<?>>();
 	
     private static <T> void bindArgument(T placeholder, Argument<T> argument) {
     	if (isLimitedValues(placeholder)) LIMITED_VALUE_ARGUMENTS.get().setArgument(placeholder, argument);
@@ -197,7 +239,7 @@ public final class ArgumentsFactory {
 		}
     }
 
-    private static final Map<Class<?>, FinalClassArgumentCreator<?>> FINAL_CLASS_ARGUMENT_CREATORS = new HashMap<Class<?>, FinalClassArgumentCreator<?>>();
+    private static final Map<Class<?>, FinalClassArgumentCreator<?>> FINAL_CLASS_ARGUMENT_CREATORS = new ConcurrentHashMap<Class<?>, FinalClassArgumentCreator<?>>();
 
     /**
      * Register a custom argument creator factory for an unknown final class
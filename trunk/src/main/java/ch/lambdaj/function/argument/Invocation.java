@@ -41,7 +41,7 @@ final class Invocation {
         return weakArgs != null;
     }
 
-    private Object[] getConcreteArgs() {
+    Object[] getConcreteArgs() {
         if (weakArgs == null) return new Object[0];
         Object[] args = new Object[weakArgs.length];
         for (int i = 0; i < weakArgs.length; i++) {
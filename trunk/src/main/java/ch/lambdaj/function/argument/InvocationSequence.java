@@ -4,10 +4,13 @@
 
 package ch.lambdaj.function.argument;
 
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Registers a sequence of method invocations
@@ -15,30 +18,18 @@ import java.util.concurrent.atomic.AtomicBoolean;
  * @author Mario Fusco
  * @author Frode Carlsen
  */
-final class InvocationSequence implements Invoker {
-
-    private static boolean jittingEnabled = false;
-    private static ExecutorService executor;
-
-    static void enableJitting(boolean enable) {
-        if (enable) {
-            jittingEnabled = true;
-            if (executor == null) {
-                executor = Executors.newCachedThreadPool(new ThreadFactory() {
-                    public Thread newThread(Runnable r) {
-                        Thread t = new Thread(r);
-                        t.setDaemon(true);
-                        return t;
-                    }
-                });
-            }
-        } else {
-            jittingEnabled = false;
-            if (executor != null) {
-                executor.shutdown();
-                executor = null;
-            }
+final class InvocationSequence implements PrimitiveInvoker {
+
+    private static volatile JitPolicy jitPolicy;
+    private static volatile ExecutorService executor;
+
+    static synchronized void enableJitting(JitPolicy policy) {
+        if (executor != null) {
+            executor.shutdown();
+            executor = null;
         }
+        if (policy != null) executor = policy.createExecutor();
+        jitPolicy = policy;
     }
 
     private final Class<?> rootInvokedClass;
@@ -46,10 +37,12 @@ final class InvocationSequence implements Invoker {
     Invocation lastInvocation;
     private int hashCode;
 
-    private boolean jitDone;
-    private AtomicBoolean needsJitting;
+    private volatile boolean jitDone;
+    private AtomicInteger evaluationsCounter;
+    private AtomicBoolean jitStarted;
 
-    private Invoker invoker = this;
+    private volatile Invoker invoker = this;
+    private volatile PrimitiveInvoker primitiveInvoker = this;
 
     InvocationSequence(Class<?> rootInvokedClass) {
         this.rootInvokedClass = rootInvokedClass;
@@ -60,15 +53,21 @@ final class InvocationSequence implements Invoker {
         rootInvokedClass = sequence.getRootInvokedClass();
         invocation.previousInvocation = sequence.lastInvocation;
         lastInvocation = invocation;
-        boolean isJittable = jittingEnabled && isJittable(lastInvocation);
-        if (isJittable) needsJitting = new AtomicBoolean(isJittable);
-        jitDone = !isJittable;
+        evaluationsCounter = new AtomicInteger(0);
+        jitStarted = new AtomicBoolean(false);
     }
 
     Class<?> getRootInvokedClass() {
         return rootInvokedClass;
     }
 
+    Class<?> getFirstMethodDeclaringClass() {
+        if (lastInvocation == null) return rootInvokedClass;
+        Invocation firstInvocation = lastInvocation;
+        while (firstInvocation.previousInvocation != null) firstInvocation = firstInvocation.previousInvocation;
+        return firstInvocation.getInvokedMethod().getDeclaringClass();
+    }
+
     String getInkvokedPropertyName() {
         if (inkvokedPropertyName == null) inkvokedPropertyName = calcInkvokedPropertyName();
         return inkvokedPropertyName;
@@ -117,32 +116,140 @@ final class InvocationSequence implements Invoker {
         return hashCode;
     }
 
-    public Object evaluate(final Object object) {
-        if (!jitDone && needsJitting.compareAndSet(true, false)) {
-            jitDone = true;
-            if (executor != null) {
-                executor.submit(new Runnable() {
-                    public void run() {
-                        invoker = new InvokerJitter(object, InvocationSequence.this).jitInvoker();
-                    }
-                });
-            }
-        }
+    public Object evaluate(Object object) {
+        if (!jitDone) jitIfNeeded(object);
         return invoker.invokeOn(object);
     }
 
+    private void jitIfNeeded(Object object) {
+        JitPolicy policy = jitPolicy;
+        if (policy == null || object == null) return;
+        if (evaluationsCounter.incrementAndGet() < policy.getThreshold() || !jitStarted.compareAndSet(false, true)) return;
+        ClassLoader classLoader = getJitClassLoader(object);
+        ExecutorService jitExecutor = executor;
+        if (jitExecutor == null) jit(classLoader);
+        else jitInBackground(jitExecutor, classLoader);
+    }
+
+    private ClassLoader getJitClassLoader(Object object) {
+        ClassLoader classLoader = object.getClass().getClassLoader();
+        return classLoader != null ? classLoader : InvocationSequence.class.getClassLoader();
+    }
+
+    private void jitInBackground(ExecutorService jitExecutor, final ClassLoader classLoader) {
+        try {
+            jitExecutor.submit(new Runnable() {
+                public void run() {
+                    jit(classLoader);
+                }
+            });
+        } catch (RejectedExecutionException ree) {
+            // the jitter is busy or has been shut down: let one of the next evaluations try again
+            jitStarted.set(false);
+        }
+    }
+
+    private void jit(ClassLoader classLoader) {
+        try {
+            Invoker jittedInvoker = createJittedInvoker(classLoader);
+            if (jittedInvoker instanceof PrimitiveInvoker) primitiveInvoker = (PrimitiveInvoker)jittedInvoker;
+            invoker = jittedInvoker;
+        } catch (RuntimeException e) {
+            // the reflective invoker is always a valid fallback
+        }
+        jitDone = true;
+    }
+
+    private Invoker createJittedInvoker(ClassLoader classLoader) {
+        try {
+            return MethodHandleInvokerFactory.createInvoker(classLoader, this);
+        } catch (RuntimeException e) {
+            // fall back to the bytecode generated invoker
+        } catch (LinkageError e) {
+            // fall back to the bytecode generated invoker
+        }
+        return isBytecodeJittable() ? new InvokerJitter(classLoader, this).jitInvoker() : this;
+    }
+
+    Invoker compile(ClassLoader classLoader) {
+        return createJittedInvoker(classLoader);
+    }
+
+    boolean isJitted() {
+        return invoker != this;
+    }
+
+    PrimitiveInvoker getPrimitiveInvoker() {
+        return primitiveInvoker;
+    }
+
     public Object invokeOn(Object object) {
         return invokeOn(lastInvocation, object);
     }
 
+    public Object invokeTargetOn(Object object) {
+        if (!jitDone) jitIfNeeded(object);
+        return lastInvocation == null ? object : invokeOn(lastInvocation.previousInvocation, object);
+    }
+
+    public int invokeIntOn(Object target) {
+        return ((Number)lastInvocation.invokeOn(target)).intValue();
+    }
+
+    public long invokeLongOn(Object target) {
+        return ((Number)lastInvocation.invokeOn(target)).longValue();
+    }
+
+    public double invokeDoubleOn(Object target) {
+        return ((Number)lastInvocation.invokeOn(target)).doubleValue();
+    }
+
     private Object invokeOn(Invocation invocation, Object value) {
         if (invocation == null) return value;
         if (invocation.previousInvocation != null) value = invokeOn(invocation.previousInvocation, value);
         return invocation.invokeOn(value);
     }
 
+    /**
+     * Calculates the structural identity of this sequence, i.e. the root class and the chain of invoked methods.
+     * The values of the arguments are not part of it, so all the sequences having the same signature can share
+     * the same compiled invoker class, passing to it their own arguments as returned by getArguments().
+     */
+    String getSignature() {
+        StringBuilder sb = new StringBuilder(rootInvokedClass.getName());
+        for (Invocation invocation = lastInvocation; invocation != null; invocation = invocation.previousInvocation) {
+            sb.append('|').append(invocation.getInvokedMethod());
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Returns the arguments of all the invocations in this sequence, starting from the first one.
+     * As in the invocations, the non primitive arguments are weakly referenced, so a compiled invoker doesn't
+     * prevent them from being garbage collected.
+     */
+    Object[] getArguments() {
+        List<Object> args = new ArrayList<Object>();
+        addArguments(lastInvocation, args);
+        return args.toArray();
+    }
+
+    private void addArguments(Invocation invocation, List<Object> args) {
+        if (invocation == null) return;
+        addArguments(invocation.previousInvocation, args);
+        Class<?>[] parameterTypes = invocation.getInvokedMethod().getParameterTypes();
+        Object[] concreteArgs = invocation.getConcreteArgs();
+        for (int i = 0; i < parameterTypes.length; i++) {
+            args.add(parameterTypes[i].isPrimitive() ? concreteArgs[i] : new WeakReference<Object>(concreteArgs[i]));
+        }
+    }
+
+    private boolean isBytecodeJittable() {
+        return InvokerJitter.isAccessible(rootInvokedClass) && isJittable(lastInvocation);
+    }
+
     private boolean isJittable(Invocation invocation) {
-        return !invocation.hasArguments() && (invocation.previousInvocation == null || isJittable(invocation.previousInvocation));
+        return InvokerJitter.isJittable(invocation) && (invocation.previousInvocation == null || isJittable(invocation.previousInvocation));
     }
 
     @Override
@@ -0,0 +1,67 @@
+// Modified or written by Lambdascale SRL for inclusion with lambdaj.
+// Copyright (c) 2009-2010 Mario Fusco.
+// Licensed under the Apache License, Version 2.0 (the "License")
+
+package ch.lambdaj.function.argument;
+
+import java.lang.ref.*;
+import java.util.*;
+import java.util.concurrent.atomic.*;
+
+/**
+ * Caches the invoker classes generated by the InvokerJitter and by the MethodHandleInvokerFactory by the classloader
+ * of the objects on which they are evaluated and by the signature of the invocation sequence they compile. Both the classloaders and the generated classes are
+ * weakly referenced, so they can be unloaded when no longer used.
+ * @author Mario Fusco
+ */
+final class InvokerClassCache {
+
+    private InvokerClassCache() { }
+
+    private static final Map<ClassLoader, Map<String, WeakReference<Class<?>>>> CLASSES_BY_LOADER =
+            new WeakHashMap<ClassLoader, Map<String, WeakReference<Class<?>>>>();
+
+    private static final AtomicLong hits = new AtomicLong();
+    private static final AtomicLong misses = new AtomicLong();
+    private static final AtomicLong generatedClasses = new AtomicLong();
+
+    static Class<?> get(ClassLoader classLoader, String signature) {
+        Class<?> clazz = null;
+        synchronized (CLASSES_BY_LOADER) {
+            Map<String, WeakReference<Class<?>>> classes = CLASSES_BY_LOADER.get(classLoader);
+            if (classes != null) clazz = dereference(classes.get(signature));
+        }
+        (clazz != null ? hits : misses).incrementAndGet();
+        return clazz;
+    }
+
+    static Class<?> put(ClassLoader classLoader, String signature, Class<?> clazz) {
+        generatedClasses.incrementAndGet();
+        synchronized (CLASSES_BY_LOADER) {
+            Map<String, WeakReference<Class<?>>> classes = CLASSES_BY_LOADER.get(classLoader);
+            if (classes == null) {
+                classes = new HashMap<String, WeakReference<Class<?>>>();
+                CLASSES_BY_LOADER.put(classLoader, classes);
+            }
+            Class<?> cached = dereference(classes.get(signature));
+            if (cached != null) return cached;
+            purgeUnloadedClasses(classes);
+            classes.put(signature, new WeakReference<Class<?>>(clazz));
+            return clazz;
+        }
+    }
+
+    private static void purgeUnloadedClasses(Map<String, WeakReference<Class<?>>> classes) {
+        for (Iterator<WeakReference<Class<?>>> i = classes.values().iterator(); i.hasNext();) {
+            if (i.next().get() == null) i.remove();
+        }
+    }
+
+    private static Class<?> dereference(WeakReference<Class<?>> reference) {
+        return reference == null ? null : reference.get();
+    }
+
+    static JitStatistics getStatistics() {
+        return new JitStatistics(hits.get(), misses.get(), generatedClasses.get());
+    }
+}
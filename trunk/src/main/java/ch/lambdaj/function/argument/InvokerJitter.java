@@ -9,6 +9,9 @@ import net.sf.cglib.asm.Label;
 import net.sf.cglib.asm.MethodVisitor;
 
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import static net.sf.cglib.asm.Opcodes.*;
@@ -17,42 +20,89 @@ class InvokerJitter {
 
     private static final AtomicInteger jitCounter = new AtomicInteger(1);
 
-    private final InternalClassLoader classLoader;
+    private static final String ARGS_FIELD = "args";
+    private static final String ARGS_DESCRIPTOR = "[Ljava/lang/Object;";
+    private static final String WRAP_EXCEPTION_METHOD = "wrapException";
+    private static final String WRAP_EXCEPTION_DESCRIPTOR = "(Ljava/lang/Throwable;)Ljava/lang/RuntimeException;";
+
+    private final ClassLoader classLoader;
     private final InvocationSequence invocationSequence;
 
+    private final List<Label> exceptionHandlers = new ArrayList<Label>();
+    private String invokerClassName;
+    private int jittedArgsCounter;
+
     InvokerJitter(Object invokedObject, InvocationSequence invocationSequence) {
         this(invokedObject.getClass().getClassLoader(), invocationSequence);
     }
 
     InvokerJitter(ClassLoader classLoader, InvocationSequence invocationSequence) {
-        this.classLoader = new InternalClassLoader(classLoader);;
+        this.classLoader = classLoader;
         this.invocationSequence = invocationSequence;
     }
 
     Invoker jitInvoker() {
+        String signature = invocationSequence.getSignature();
         try {
-            int id = jitCounter.getAndIncrement();
-            Class<?> clazz = classLoader.defineClass("ch.lambdaj.function.argument.Invoker_" + id, generateBytecode(id));
-            return (Invoker)clazz.newInstance();
+            Class<?> clazz = InvokerClassCache.get(classLoader, signature);
+            if (clazz == null) clazz = InvokerClassCache.put(classLoader, signature, generateClass());
+            return (Invoker)clazz.getConstructor(Object[].class).newInstance(new Object[] { invocationSequence.getArguments() });
         } catch (Exception e) {
             throw new RuntimeException(e);
         }
     }
 
+    private Class<?> generateClass() {
+        int id = jitCounter.getAndIncrement();
+        return new InternalClassLoader(classLoader).defineClass("ch.lambdaj.function.argument.Invoker_" + id, generateBytecode(id));
+    }
+
+    /**
+     * Checks if the given invocation can be compiled in bytecode, i.e. if the invoked method and all the types
+     * that the generated code has to reference are accessible from outside their package
+     * @param invocation The invocation to be checked
+     * @return True if the invocation can be jitted, false otherwise
+     */
+    static boolean isJittable(Invocation invocation) {
+        Method method = invocation.getInvokedMethod();
+        if (method.getReturnType() == Void.TYPE || !Modifier.isPublic(method.getModifiers()) || !isAccessible(method.getDeclaringClass()))
+            return false;
+        for (Class<?> parameterType : method.getParameterTypes()) {
+            if (!isAccessible(parameterType)) return false;
+        }
+        return true;
+    }
+
+    static boolean isAccessible(Class<?> clazz) {
+        if (clazz.isArray()) return isAccessible(clazz.getComponentType());
+        return clazz.isPrimitive() || Modifier.isPublic(clazz.getModifiers());
+    }
+
+    // ////////////////////////////////////////////////////////////////////////
+    // /// Bytecode
+    // ////////////////////////////////////////////////////////////////////////
+
     private byte[] generateBytecode(int id) {
+        jittedArgsCounter = 0;
+        invokerClassName = "ch/lambdaj/function/argument/Invoker_" + id;
         ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_MAXS + ClassWriter.COMPUTE_FRAMES);
-        cw.visit(V1_5, ACC_PUBLIC + ACC_SUPER, "ch/lambdaj/function/argument/Invoker_" + id, null, "java/lang/Object", new String[]{"ch/lambdaj/function/argument/Invoker"});
-        jitEmptyConstructor(cw);
+        cw.visit(V1_5, ACC_PUBLIC + ACC_SUPER, invokerClassName, null, "java/lang/Object", new String[]{"ch/lambdaj/function/argument/Invoker"});
+        cw.visitField(ACC_PRIVATE + ACC_FINAL, ARGS_FIELD, ARGS_DESCRIPTOR, null, null).visitEnd();
+        jitArgsConstructor(cw);
         jitInvocationMethod(cw);
+        jitExceptionWrapper(cw);
         cw.visitEnd();
         return cw.toByteArray();
     }
 
-    private void jitEmptyConstructor(ClassWriter cw) {
-        MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, "<init>", "()V", null, null);
+    private void jitArgsConstructor(ClassWriter cw) {
+        MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, "<init>", "(" + ARGS_DESCRIPTOR + ")V", null, null);
         mv.visitCode();
         mv.visitVarInsn(ALOAD, 0);
         mv.visitMethodInsn(INVOKESPECIAL, "java/lang/Object", "<init>", "()V");
+        mv.visitVarInsn(ALOAD, 0);
+        mv.visitVarInsn(ALOAD, 1);
+        mv.visitFieldInsn(PUTFIELD, invokerClassName, ARGS_FIELD, ARGS_DESCRIPTOR);
         mv.visitInsn(RETURN);
         mv.visitMaxs(0, 0);
         mv.visitEnd();
@@ -61,9 +111,38 @@ class InvokerJitter {
     private void jitInvocationMethod(ClassWriter cw) {
         MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, "invokeOn", "(Ljava/lang/Object;)Ljava/lang/Object;", null, null);
         mv.visitCode();
-        mv.visitVarInsn(ALOAD, 1);
+        exceptionHandlers.clear();
         jitInvocationSequence(mv);
         mv.visitInsn(ARETURN);
+        jitExceptionHandlers(mv);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+    }
+
+    /**
+     * Rethrows any exception thrown by an invoked method as the cause of an InvocationTargetException wrapped in
+     * a RuntimeException, as it happens when the same method is invoked by reflection.
+     * Each invocation has its own handler, so the frame of each handler is computed on a single invocation.
+     */
+    private void jitExceptionHandlers(MethodVisitor mv) {
+        for (Label handler : exceptionHandlers) {
+            mv.visitLabel(handler);
+            mv.visitMethodInsn(INVOKESTATIC, invokerClassName, WRAP_EXCEPTION_METHOD, WRAP_EXCEPTION_DESCRIPTOR);
+            mv.visitInsn(ATHROW);
+        }
+    }
+
+    private void jitExceptionWrapper(ClassWriter cw) {
+        MethodVisitor mv = cw.visitMethod(ACC_PRIVATE + ACC_STATIC, WRAP_EXCEPTION_METHOD, WRAP_EXCEPTION_DESCRIPTOR, null, null);
+        mv.visitCode();
+        mv.visitTypeInsn(NEW, "java/lang/RuntimeException");
+        mv.visitInsn(DUP);
+        mv.visitTypeInsn(NEW, "java/lang/reflect/InvocationTargetException");
+        mv.visitInsn(DUP);
+        mv.visitVarInsn(ALOAD, 0);
+        mv.visitMethodInsn(INVOKESPECIAL, "java/lang/reflect/InvocationTargetException", "<init>", "(Ljava/lang/Throwable;)V");
+        mv.visitMethodInsn(INVOKESPECIAL, "java/lang/RuntimeException", "<init>", "(Ljava/lang/Throwable;)V");
+        mv.visitInsn(ARETURN);
         mv.visitMaxs(0, 0);
         mv.visitEnd();
     }
@@ -85,19 +164,60 @@ class InvokerJitter {
         mv.visitLabel(nonNull);
         mv.visitVarInsn(ALOAD, 2);
         Method method = invocation.getInvokedMethod();
+        String owner = getClassName(method.getDeclaringClass());
+        mv.visitTypeInsn(CHECKCAST, owner);
+        jitArguments(mv, method.getParameterTypes());
+        Label invocationStart = new Label(), invocationEnd = new Label(), handler = new Label();
+        mv.visitTryCatchBlock(invocationStart, invocationEnd, handler, "java/lang/Throwable");
+        exceptionHandlers.add(handler);
+        mv.visitLabel(invocationStart);
         if (method.getDeclaringClass().isInterface()) {
-            mv.visitMethodInsn(INVOKEINTERFACE, getClassName(method.getDeclaringClass()), method.getName(), "()" + getInternalName(method.getReturnType()));
+            mv.visitMethodInsn(INVOKEINTERFACE, owner, method.getName(), getMethodDescriptor(method));
         } else {
-            mv.visitMethodInsn(INVOKEVIRTUAL, getClassName(method.getDeclaringClass()), method.getName(), "()" + getInternalName(method.getReturnType()));
+            mv.visitMethodInsn(INVOKEVIRTUAL, owner, method.getName(), getMethodDescriptor(method));
         }
+        mv.visitLabel(invocationEnd);
         primitiveToObject(mv, method.getReturnType());
     }
 
+    /**
+     * Loads the arguments of an invocation from the array passed to the constructor of the generated class,
+     * so the class doesn't depend on their values and can be shared by all the sequences with the same signature.
+     * The non primitive arguments are dereferenced from the weak references holding them.
+     */
+    private void jitArguments(MethodVisitor mv, Class<?>[] parameterTypes) {
+        for (Class<?> parameterType : parameterTypes) {
+            mv.visitVarInsn(ALOAD, 0);
+            mv.visitFieldInsn(GETFIELD, invokerClassName, ARGS_FIELD, ARGS_DESCRIPTOR);
+            jitInt(mv, jittedArgsCounter++);
+            mv.visitInsn(AALOAD);
+            if (parameterType.isPrimitive()) objectToPrimitive(mv, parameterType);
+            else {
+                mv.visitTypeInsn(CHECKCAST, "java/lang/ref/Reference");
+                mv.visitMethodInsn(INVOKEVIRTUAL, "java/lang/ref/Reference", "get", "()Ljava/lang/Object;");
+                mv.visitTypeInsn(CHECKCAST, getClassName(parameterType));
+            }
+        }
+    }
+
+    private void jitInt(MethodVisitor mv, int value) {
+        mv.visitLdcInsn(value);
+    }
+
+    private String getMethodDescriptor(Method method) {
+        StringBuilder sb = new StringBuilder("(");
+        for (Class<?> parameterType : method.getParameterTypes()) {
+            sb.append(getInternalName(parameterType));
+        }
+        return sb.append(")").append(getInternalName(method.getReturnType())).toString();
+    }
+
     private String getClassName(Class<?> clazz) {
         return clazz.getName().replace('.', '/');
     }
 
     private String getInternalName(Class<?> clazz) {
+        if (clazz.isArray()) return getClassName(clazz);
         if (!clazz.isPrimitive()) return "L" + getClassName(clazz) + ";";
         if (clazz == int.class) return "I";
         if (clazz == long.class) return "J";
@@ -109,6 +229,19 @@ class InvokerJitter {
         return "B";
     }
 
+    private void objectToPrimitive(MethodVisitor mv, Class<?> clazz) {
+        if (clazz == boolean.class) {
+            mv.visitTypeInsn(CHECKCAST, "java/lang/Boolean");
+            mv.visitMethodInsn(INVOKEVIRTUAL, "java/lang/Boolean", "booleanValue", "()Z");
+        } else if (clazz == char.class) {
+            mv.visitTypeInsn(CHECKCAST, "java/lang/Character");
+            mv.visitMethodInsn(INVOKEVIRTUAL, "java/lang/Character", "charValue", "()C");
+        } else {
+            mv.visitTypeInsn(CHECKCAST, "java/lang/Number");
+            mv.visitMethodInsn(INVOKEVIRTUAL, "java/lang/Number", clazz.getName() + "Value", "()" + getInternalName(clazz));
+        }
+    }
+
     private void primitiveToObject(MethodVisitor mv, Class<?> clazz) {
         if (!clazz.isPrimitive()) return;
         if (clazz == int.class) mv.visitMethodInsn(INVOKESTATIC, "java/lang/Integer", "valueOf", "(I)Ljava/lang/Integer;");
@@ -121,7 +254,7 @@ class InvokerJitter {
         else if (clazz == byte.class) mv.visitMethodInsn(INVOKESTATIC, "java/lang/Byte", "valueOf", "(B)Ljava/lang/Byte;");
     }
 
-    private static class InternalClassLoader extends ClassLoader {
+    static final class InternalClassLoader extends ClassLoader {
 
         InternalClassLoader(ClassLoader classLoader) {
             super(classLoader);
@@ -0,0 +1,104 @@
+// Modified or written by Lambdascale SRL for inclusion with lambdaj.
+// Copyright (c) 2009-2010 Mario Fusco.
+// Licensed under the Apache License, Version 2.0 (the "License")
+
+package ch.lambdaj.function.argument;
+
+import java.util.concurrent.*;
+
+/**
+ * Defines when and in which thread the invocation sequence of an argument is compiled in bytecode.
+ * An argument is compiled only after it has been evaluated a given number of times (the threshold) and the
+ * compilation happens either synchronously in the thread that reached that threshold, or in background on a bounded
+ * pool of daemon threads while the argument keeps being evaluated via reflection.
+ * @author Mario Fusco
+ */
+public final class JitPolicy {
+
+    private static final int BACKGROUND_QUEUE_CAPACITY = 1024;
+
+    private final int threshold;
+    private final int backgroundThreads;
+
+    private JitPolicy(int threshold, int backgroundThreads) {
+        if (threshold < 1) throw new IllegalArgumentException("The jitting threshold must be positive: " + threshold);
+        if (backgroundThreads < 0) throw new IllegalArgumentException("The number of jitting threads cannot be negative: " + backgroundThreads);
+        this.threshold = threshold;
+        this.backgroundThreads = backgroundThreads;
+    }
+
+    /**
+     * Creates a policy that compiles an argument in the thread evaluating it for the first time
+     * @return A policy compiling arguments synchronously on their first evaluation
+     */
+    public static JitPolicy synchronous() {
+        return afterEvaluations(1);
+    }
+
+    /**
+     * Creates a policy that compiles an argument in the thread evaluating it for the threshold-th time,
+     * so only the arguments actually used in hot paths pay the cost of the bytecode generation
+     * @param threshold The number of evaluations after which an argument is compiled
+     * @return A policy compiling arguments synchronously after the given number of evaluations
+     */
+    public static JitPolicy afterEvaluations(int threshold) {
+        return new JitPolicy(threshold, 0);
+    }
+
+    /**
+     * Creates a policy that compiles an argument in background on a single daemon thread after its first evaluation
+     * @return A policy compiling arguments in background
+     */
+    public static JitPolicy background() {
+        return background(1);
+    }
+
+    /**
+     * Creates a policy that compiles an argument in background on the given number of daemon threads after its first evaluation
+     * @param threads The number of threads used to compile the arguments
+     * @return A policy compiling arguments in background
+     */
+    public static JitPolicy background(int threads) {
+        return background(threads, 1);
+    }
+
+    /**
+     * Creates a policy that compiles an argument in background on the given number of daemon threads
+     * after it has been evaluated the given number of times
+     * @param threads The number of threads used to compile the arguments
+     * @param threshold The number of evaluations after which an argument is compiled
+     * @return A policy compiling arguments in background
+     */
+    public static JitPolicy background(int threads, int threshold) {
+        if (threads < 1) throw new IllegalArgumentException("A background jitting policy needs at least one thread");
+        return new JitPolicy(threshold, threads);
+    }
+
+    int getThreshold() {
+        return threshold;
+    }
+
+    boolean isSynchronous() {
+        return backgroundThreads == 0;
+    }
+
+    ExecutorService createExecutor() {
+        if (isSynchronous()) return null;
+        return new ThreadPoolExecutor(backgroundThreads, backgroundThreads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<Runnable>(BACKGROUND_QUEUE_CAPACITY), new ThreadFactory() {
+                    public Thread newThread(Runnable r) {
+                        Thread t = new Thread(r, "lambdaj-jitter");
+                        t.setDaemon(true);
+                        return t;
+                    }
+                });
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return (isSynchronous() ? "synchronous" : "background(" + backgroundThreads + ")") + " jitting after " + threshold + " evaluation(s)";
+    }
+}
@@ -0,0 +1,54 @@
+// Modified or written by Lambdascale SRL for inclusion with lambdaj.
+// Copyright (c) 2009-2010 Mario Fusco.
+// Licensed under the Apache License, Version 2.0 (the "License")
+
+package ch.lambdaj.function.argument;
+
+/**
+ * A snapshot of the counters of the cache of the classes generated by compiling the arguments' invocation sequences
+ * @author Mario Fusco
+ */
+public final class JitStatistics {
+
+    private final long hits;
+    private final long misses;
+    private final long generatedClasses;
+
+    JitStatistics(long hits, long misses, long generatedClasses) {
+        this.hits = hits;
+        this.misses = misses;
+        this.generatedClasses = generatedClasses;
+    }
+
+    /**
+     * Returns how many times an invoker has been created by reusing an already generated class
+     * @return The number of cache hits
+     */
+    public long getHits() {
+        return hits;
+    }
+
+    /**
+     * Returns how many times a class compatible with the invocation sequence to be compiled wasn't found in the cache
+     * @return The number of cache misses
+     */
+    public long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Returns how many invoker classes have been actually generated and loaded
+     * @return The number of generated classes
+     */
+    public long getGeneratedClasses() {
+        return generatedClasses;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return "hits: " + hits + ", misses: " + misses + ", generated classes: " + generatedClasses;
+    }
+}
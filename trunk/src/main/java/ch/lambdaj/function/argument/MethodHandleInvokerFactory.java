@@ -0,0 +1,267 @@
+// Modified or written by Lambdascale SRL for inclusion with lambdaj.
+// Copyright (c) 2009-2010 Mario Fusco.
+// Licensed under the Apache License, Version 2.0 (the "License")
+
+package ch.lambdaj.function.argument;
+
+import net.sf.cglib.asm.ClassWriter;
+import net.sf.cglib.asm.MethodVisitor;
+import net.sf.cglib.asm.Type;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.ref.Reference;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static net.sf.cglib.asm.Opcodes.*;
+
+/**
+ * Creates the invokers that evaluate an invocation sequence through a single method handle obtained by folding the
+ * handles of all the methods in the sequence. Each handle is invoked by a generated class holding it in a static final
+ * field, so the JIT compiler can treat it as a constant and inline the whole chain of methods in the invoker.
+ * The handle only depends on the signature of the sequence, while its arguments are passed to the constructor of the
+ * generated class, so this class is cached in the InvokerClassCache and shared by all the sequences with the same signature.
+ * When the last method of the sequence returns an int, a long or a double the generated class is also a {@link PrimitiveInvoker},
+ * invoking that method through a handle that returns its value without boxing it.
+ * As when the methods are invoked by reflection, any exception thrown by one of them is rethrown as the cause of an
+ * InvocationTargetException wrapped in a RuntimeException.
+ * @author Mario Fusco
+ */
+final class MethodHandleInvokerFactory {
+
+    private MethodHandleInvokerFactory() { }
+
+    private static final AtomicInteger bridgeCounter = new AtomicInteger(1);
+
+    private static final String BRIDGE_CLASS_NAME = "ch/lambdaj/function/argument/MethodHandleInvoker_";
+    private static final String[] HANDLE_FIELDS = { "HANDLE", "TARGET_HANDLE", "INT_HANDLE", "LONG_HANDLE", "DOUBLE_HANDLE" };
+    private static final String HANDLE_DESCRIPTOR = "Ljava/lang/invoke/MethodHandle;";
+    private static final String HANDLES_DESCRIPTOR = "[Ljava/lang/invoke/MethodHandle;";
+    private static final String INVOKE_DESCRIPTOR = "(Ljava/lang/Object;[Ljava/lang/Object;)";
+    private static final String ARGS_FIELD = "args";
+    private static final String ARGS_DESCRIPTOR = "[Ljava/lang/Object;";
+    private static final String SIGNATURE_PREFIX = "mh:";
+
+    private static final MethodType INVOKER_TYPE = MethodType.methodType(Object.class, Object.class, Object[].class);
+    private static final MethodHandle NULL_CHECK;
+    private static final MethodHandle RETURN_NULL = MethodHandles.dropArguments(MethodHandles.constant(Object.class, null), 0, Object.class, Object[].class);
+    private static final MethodHandle ARRAY_ELEMENT = MethodHandles.arrayElementGetter(Object[].class);
+    private static final MethodHandle TARGET_IDENTITY = MethodHandles.dropArguments(MethodHandles.identity(Object.class), 1, Object[].class);
+    private static final MethodHandle DEREFERENCE;
+    private static final MethodHandle WRAP_EXCEPTION;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            NULL_CHECK = lookup.findStatic(MethodHandleInvokerFactory.class, "isNull", MethodType.methodType(boolean.class, Object.class));
+            DEREFERENCE = lookup.findVirtual(Reference.class, "get", MethodType.methodType(Object.class)).asType(MethodType.methodType(Object.class, Object.class));
+            WRAP_EXCEPTION = lookup.findStatic(MethodHandleInvokerFactory.class, "wrapException", MethodType.methodType(Object.class, Throwable.class));
+        } catch (Exception e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    static Invoker createInvoker(ClassLoader classLoader, InvocationSequence invocationSequence) {
+        String signature = SIGNATURE_PREFIX + invocationSequence.getSignature();
+        try {
+            Class<?> clazz = InvokerClassCache.get(classLoader, signature);
+            if (clazz == null) clazz = InvokerClassCache.put(classLoader, signature, defineBridgeClass(foldHandles(invocationSequence.lastInvocation)));
+            return (Invoker)clazz.getConstructor(Object[].class).newInstance(new Object[] { invocationSequence.getArguments() });
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    // ////////////////////////////////////////////////////////////////////////
+    // /// Method handles folding
+    // ////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Returns the handle evaluating the whole sequence ending with the given invocation. When this invocation returns an int,
+     * a long or a double it also returns the handle evaluating the invocations preceding it and the ones invoking it
+     * on their result and returning its value as an int, a long and a double.
+     */
+    private static MethodHandle[] foldHandles(Invocation lastInvocation) {
+        MethodHandle handle = foldInvocations(lastInvocation, 0);
+        Class<?> returnType = lastInvocation.getReturnType();
+        if (returnType != int.class && returnType != long.class && returnType != double.class) return new MethodHandle[] { handle };
+
+        Invocation previous = lastInvocation.previousInvocation;
+        MethodHandle target = previous == null ? TARGET_IDENTITY : foldInvocations(previous, 0);
+        MethodHandle value = toMethodHandle(lastInvocation, previous == null ? 0 : countArguments(previous), returnType);
+        return new MethodHandle[] { handle, target,
+                MethodHandles.explicitCastArguments(value, INVOKER_TYPE.changeReturnType(int.class)),
+                MethodHandles.explicitCastArguments(value, INVOKER_TYPE.changeReturnType(long.class)),
+                MethodHandles.explicitCastArguments(value, INVOKER_TYPE.changeReturnType(double.class)) };
+    }
+
+    /**
+     * Folds the handles of the given invocation and of the ones preceding it in a handle of type (Object, Object[])Object,
+     * taking the object on which the sequence is evaluated and the arguments of all its invocations
+     * @param invocation The last invocation to be folded
+     * @param argsOffset The position in the arguments array of the first argument of the first invocation
+     */
+    private static MethodHandle foldInvocations(Invocation invocation, int argsOffset) {
+        if (invocation.previousInvocation == null) return nullSafe(toMethodHandle(invocation, argsOffset, Object.class));
+        MethodHandle previous = foldInvocations(invocation.previousInvocation, argsOffset);
+        MethodHandle handle = nullSafe(toMethodHandle(invocation, argsOffset + countArguments(invocation.previousInvocation), Object.class));
+        return MethodHandles.foldArguments(MethodHandles.dropArguments(handle, 1, Object.class), previous);
+    }
+
+    private static int countArguments(Invocation invocation) {
+        int count = invocation.getInvokedMethod().getParameterTypes().length;
+        return invocation.previousInvocation == null ? count : count + countArguments(invocation.previousInvocation);
+    }
+
+    /**
+     * Returns a handle of type (Object, Object[])returnType invoking the method of the given invocation
+     * on its first argument with the arguments read from the arguments array
+     */
+    private static MethodHandle toMethodHandle(Invocation invocation, int argsOffset, Class<?> returnType) {
+        Method method = invocation.getInvokedMethod();
+        MethodHandle handle;
+        try {
+            handle = wrapExceptions(MethodHandles.lookup().unreflect(method).asFixedArity());
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException(e);
+        }
+        Class<?>[] parameterTypes = method.getParameterTypes();
+        MethodType invokerType = INVOKER_TYPE.changeReturnType(returnType);
+        if (parameterTypes.length == 0) return MethodHandles.dropArguments(handle, 1, Object[].class).asType(invokerType);
+
+        MethodHandle[] argumentGetters = new MethodHandle[parameterTypes.length];
+        int[] reorder = new int[parameterTypes.length + 1];
+        for (int i = 0; i < parameterTypes.length; i++) {
+            argumentGetters[i] = getArgument(argsOffset + i, parameterTypes[i]);
+            reorder[i + 1] = 1;
+        }
+        handle = MethodHandles.filterArguments(handle, 1, argumentGetters);
+        handle = handle.asType(handle.type().changeParameterType(0, Object.class).changeReturnType(returnType));
+        return MethodHandles.permuteArguments(handle, invokerType, reorder);
+    }
+
+    /**
+     * Returns a handle reading the argument in the given position of the arguments array and dereferencing it
+     * from its weak reference when it is not a primitive one
+     */
+    private static MethodHandle getArgument(int position, Class<?> parameterType) {
+        MethodHandle argument = MethodHandles.insertArguments(ARRAY_ELEMENT, 1, position);
+        if (!parameterType.isPrimitive()) argument = MethodHandles.filterReturnValue(argument, DEREFERENCE);
+        return argument.asType(MethodType.methodType(parameterType, Object[].class));
+    }
+
+    private static MethodHandle nullSafe(MethodHandle handle) {
+        return MethodHandles.guardWithTest(NULL_CHECK, RETURN_NULL, handle);
+    }
+
+    private static MethodHandle wrapExceptions(MethodHandle handle) {
+        MethodType type = handle.type();
+        MethodHandle wrapper = WRAP_EXCEPTION.asType(MethodType.methodType(type.returnType(), Throwable.class));
+        return MethodHandles.catchException(handle, Throwable.class, MethodHandles.dropArguments(wrapper, 1, type.parameterList()));
+    }
+
+    @SuppressWarnings("unused")
+    private static boolean isNull(Object object) {
+        return object == null;
+    }
+
+    @SuppressWarnings("unused")
+    private static Object wrapException(Throwable throwable) {
+        throw new RuntimeException(new InvocationTargetException(throwable));
+    }
+
+    // ////////////////////////////////////////////////////////////////////////
+    // /// Bridge class
+    // ////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Defines a class invoking the given handles with the arguments passed to its constructor. The handles are read in the static initializer of the class from its
+     * classloader, through the Callable interface, because the generated class cannot access the package-private
+     * classes of lambdaj, being defined in a different runtime package.
+     */
+    private static Class<?> defineBridgeClass(MethodHandle[] handles) {
+        String className = BRIDGE_CLASS_NAME + bridgeCounter.getAndIncrement();
+        String invokerInterface = handles.length > 1 ? "ch/lambdaj/function/argument/PrimitiveInvoker" : "ch/lambdaj/function/argument/Invoker";
+        ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+        cw.visit(V1_7, ACC_PUBLIC + ACC_SUPER + ACC_FINAL, className, null, "java/lang/Object", new String[]{invokerInterface});
+        for (int i = 0; i < handles.length; i++) {
+            cw.visitField(ACC_PRIVATE + ACC_STATIC + ACC_FINAL, HANDLE_FIELDS[i], HANDLE_DESCRIPTOR, null, null).visitEnd();
+        }
+        cw.visitField(ACC_PRIVATE + ACC_FINAL, ARGS_FIELD, ARGS_DESCRIPTOR, null, null).visitEnd();
+
+        MethodVisitor mv = cw.visitMethod(ACC_STATIC, "<clinit>", "()V", null, null);
+        mv.visitCode();
+        mv.visitLdcInsn(Type.getObjectType(className));
+        mv.visitMethodInsn(INVOKEVIRTUAL, "java/lang/Class", "getClassLoader", "()Ljava/lang/ClassLoader;");
+        mv.visitTypeInsn(CHECKCAST, "java/util/concurrent/Callable");
+        mv.visitMethodInsn(INVOKEINTERFACE, "java/util/concurrent/Callable", "call", "()Ljava/lang/Object;");
+        mv.visitTypeInsn(CHECKCAST, HANDLES_DESCRIPTOR);
+        mv.visitVarInsn(ASTORE, 0);
+        for (int i = 0; i < handles.length; i++) {
+            mv.visitVarInsn(ALOAD, 0);
+            mv.visitLdcInsn(i);
+            mv.visitInsn(AALOAD);
+            mv.visitFieldInsn(PUTSTATIC, className, HANDLE_FIELDS[i], HANDLE_DESCRIPTOR);
+        }
+        mv.visitInsn(RETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+
+        mv = cw.visitMethod(ACC_PUBLIC, "<init>", "(" + ARGS_DESCRIPTOR + ")V", null, null);
+        mv.visitCode();
+        mv.visitVarInsn(ALOAD, 0);
+        mv.visitMethodInsn(INVOKESPECIAL, "java/lang/Object", "<init>", "()V");
+        mv.visitVarInsn(ALOAD, 0);
+        mv.visitVarInsn(ALOAD, 1);
+        mv.visitFieldInsn(PUTFIELD, className, ARGS_FIELD, ARGS_DESCRIPTOR);
+        mv.visitInsn(RETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+
+        invokeHandle(cw, className, "invokeOn", HANDLE_FIELDS[0], "Ljava/lang/Object;", ARETURN);
+        if (handles.length > 1) {
+            invokeHandle(cw, className, "invokeTargetOn", HANDLE_FIELDS[1], "Ljava/lang/Object;", ARETURN);
+            invokeHandle(cw, className, "invokeIntOn", HANDLE_FIELDS[2], "I", IRETURN);
+            invokeHandle(cw, className, "invokeLongOn", HANDLE_FIELDS[3], "J", LRETURN);
+            invokeHandle(cw, className, "invokeDoubleOn", HANDLE_FIELDS[4], "D", DRETURN);
+        }
+
+        cw.visitEnd();
+        return new BridgeClassLoader(handles).defineClass(className.replace('/', '.'), cw.toByteArray());
+    }
+
+    private static void invokeHandle(ClassWriter cw, String className, String methodName, String handleField, String returnDescriptor, int returnOpcode) {
+        MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, methodName, "(Ljava/lang/Object;)" + returnDescriptor, null, null);
+        mv.visitCode();
+        mv.visitFieldInsn(GETSTATIC, className, handleField, HANDLE_DESCRIPTOR);
+        mv.visitVarInsn(ALOAD, 1);
+        mv.visitVarInsn(ALOAD, 0);
+        mv.visitFieldInsn(GETFIELD, className, ARGS_FIELD, ARGS_DESCRIPTOR);
+        mv.visitMethodInsn(INVOKEVIRTUAL, "java/lang/invoke/MethodHandle", "invokeExact", INVOKE_DESCRIPTOR + returnDescriptor);
+        mv.visitInsn(returnOpcode);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+    }
+
+    private static final class BridgeClassLoader extends ClassLoader implements Callable<MethodHandle[]> {
+
+        private final MethodHandle[] handles;
+
+        private BridgeClassLoader(MethodHandle[] handles) {
+            super(MethodHandleInvokerFactory.class.getClassLoader());
+            this.handles = handles;
+        }
+
+        private Class<?> defineClass(String name, byte[] b) {
+            return defineClass(name, b, 0, b.length);
+        }
+
+        public MethodHandle[] call() {
+            return handles;
+        }
+    }
+}
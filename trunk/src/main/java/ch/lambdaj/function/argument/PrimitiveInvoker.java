@@ -0,0 +1,43 @@
+// Modified or written by Lambdascale SRL for inclusion with lambdaj.
+// Copyright (c) 2009-2010 Mario Fusco.
+// Licensed under the Apache License, Version 2.0 (the "License")
+
+package ch.lambdaj.function.argument;
+
+/**
+ * An invoker that can evaluate an invocation sequence whose last method returns an int, a long or a double without
+ * boxing its result. The evaluation is split in two steps: the invocations preceding the last one are evaluated first,
+ * so a null found along the chain can still be told apart from a primitive value, and then the last method is invoked
+ * on the resulting target.
+ * @author Mario Fusco
+ */
+public interface PrimitiveInvoker extends Invoker {
+
+    /**
+     * Evaluates all the invocations of the sequence but the last one
+     * @param object The object on which the sequence is evaluated
+     * @return The object on which the last method has to be invoked or null if any value in the chain is null
+     */
+    Object invokeTargetOn(Object object);
+
+    /**
+     * Invokes the last method of the sequence converting its result to an int
+     * @param target The not null object returned by {@link #invokeTargetOn(Object)}
+     * @return The value returned by the last method
+     */
+    int invokeIntOn(Object target);
+
+    /**
+     * Invokes the last method of the sequence converting its result to a long
+     * @param target The not null object returned by {@link #invokeTargetOn(Object)}
+     * @return The value returned by the last method
+     */
+    long invokeLongOn(Object target);
+
+    /**
+     * Invokes the last method of the sequence converting its result to a double
+     * @param target The not null object returned by {@link #invokeTargetOn(Object)}
+     * @return The value returned by the last method
+     */
+    double invokeDoubleOn(Object target);
+}
@@ -0,0 +1,240 @@
+// Modified or written by Lambdascale SRL for inclusion with lambdaj.
+// Copyright (c) 2009-2010 Mario Fusco.
+// Licensed under the Apache License, Version 2.0 (the "License")
+
+package ch.lambdaj.function.compare;
+
+import static ch.lambdaj.function.compare.ComparatorUtil.*;
+
+import java.util.*;
+
+import ch.lambdaj.function.argument.*;
+
+/**
+ * Sorts a list of objects on the respective values of an argument by evaluating the argument only once on each object.
+ * The values of the argument are extracted in an array parallel to the one of the objects, and an array of indexes
+ * is then stably sorted by comparing those values. When the values are compared with their natural order and they are
+ * all integral or all floating point numbers, they are stored and compared as primitive longs or doubles.
+ * As for the {@link ArgumentComparator} the objects having a null value are always put at the end of the sorted list.
+ * @author Mario Fusco
+ */
+public final class ArgumentSorter {
+
+    private ArgumentSorter() { }
+
+    private static final int INSERTION_SORT_THRESHOLD = 7;
+    private static final int INITIAL_HEAP_CAPACITY = 16;
+
+    /**
+     * Sorts the objects returned by the given iterator on the respective values of the given argument
+     * @param iterator The iterator of the objects to be sorted
+     * @param argument The argument whose values determine the order of the objects
+     * @param comparator The comparator used to compare the values of the argument. A null value indicates that
+     * their natural ordering should be used
+     * @return An ArrayList with the objects returned by the given iterator sorted on the respective value of the given argument
+     */
+    @SuppressWarnings("unchecked")
+    public static <T, A> List<T> sort(Iterator<?> iterator, Argument<A> argument, Comparator<A> comparator) {
+        List<Object> items = new ArrayList<Object>();
+        while (iterator.hasNext()) { items.add(iterator.next()); }
+        int size = items.size();
+
+        Object[] keys = new Object[size];
+        for (int i = 0; i < size; i++) { keys[i] = argument.evaluate(items.get(i)); }
+
+        int[] indexes = new int[size];
+        int nonNullKeys = partitionNullKeys(keys, indexes);
+        sortIndexes(indexes, nonNullKeys, createKeys(keys, (Comparator<Object>)comparator));
+        return toList(items, indexes);
+    }
+
+    /**
+     * Selects the first k objects returned by the given iterator in the order defined by the respective values of the given argument,
+     * using a heap bounded to k objects instead of sorting all of them. The result is the same of taking the first k objects
+     * of the list returned by {@link ArgumentSorter#sort(Iterator, Argument, Comparator)}.
+     * @param iterator The iterator of the objects to be selected
+     * @param argument The argument whose values determine the order of the objects
+     * @param comparator The comparator used to compare the values of the argument. A null value indicates that
+     * their natural ordering should be used
+     * @param k The maximum number of objects to be selected
+     * @return A List with the first k objects in the order defined by the given argument and comparator
+     */
+    @SuppressWarnings("unchecked")
+    public static <T, A> List<T> selectFirst(Iterator<?> iterator, Argument<A> argument, Comparator<A> comparator, int k) {
+        if (k < 0) throw new IllegalArgumentException("The number of objects to be selected cannot be negative: " + k);
+        if (k == 0) return new ArrayList<T>();
+        Comparator<SelectedItem> order = new SelectedItemComparator(comparator == null ? DEFAULT_ARGUMENT_COMPARATOR : (Comparator<Object>)comparator);
+        // the heap grows as needed, so a huge k doesn't allocate its capacity upfront
+        PriorityQueue<SelectedItem> heap = new PriorityQueue<SelectedItem>(Math.min(k, INITIAL_HEAP_CAPACITY), Collections.reverseOrder(order));
+        for (int i = 0; iterator.hasNext(); i++) {
+            Object item = iterator.next();
+            SelectedItem selected = new SelectedItem(item, argument.evaluate(item), i);
+            if (heap.size() < k) heap.add(selected);
+            else if (order.compare(selected, heap.peek()) < 0) {
+                heap.poll();
+                heap.add(selected);
+            }
+        }
+
+        SelectedItem[] selection = heap.toArray(new SelectedItem[heap.size()]);
+        Arrays.sort(selection, order);
+        List<T> result = new ArrayList<T>(selection.length);
+        for (SelectedItem selected : selection) { result.add((T)selected.item); }
+        return result;
+    }
+
+    private static final class SelectedItem {
+        private final Object item;
+        private final Object key;
+        private final int position;
+
+        private SelectedItem(Object item, Object key, int position) {
+            this.item = item;
+            this.key = key;
+            this.position = position;
+        }
+    }
+
+    private static final class SelectedItemComparator implements Comparator<SelectedItem> {
+        private final Comparator<Object> comparator;
+
+        private SelectedItemComparator(Comparator<Object> comparator) {
+            this.comparator = comparator;
+        }
+
+        public int compare(SelectedItem selected1, SelectedItem selected2) {
+            int comparison = nullSafeCompare(comparator, selected1.key, selected2.key);
+            return comparison != 0 ? comparison : (selected1.position < selected2.position ? -1 : 1);
+        }
+    }
+
+    static int partitionNullKeys(Object[] keys, int[] indexes) {
+        int nonNullKeys = 0;
+        for (int i = 0; i < keys.length; i++) { if (keys[i] != null) indexes[nonNullKeys++] = i; }
+        for (int i = 0, j = nonNullKeys; i < keys.length; i++) { if (keys[i] == null) indexes[j++] = i; }
+        return nonNullKeys;
+    }
+
+    @SuppressWarnings("unchecked")
+    static <T> List<T> toList(List<?> items, int[] indexes) {
+        List<T> sorted = new ArrayList<T>(indexes.length);
+        for (int index : indexes) { sorted.add((T)items.get(index)); }
+        return sorted;
+    }
+
+    static SortKeys createKeys(Object[] keys, Comparator<Object> comparator) {
+        if (comparator == null) comparator = DEFAULT_ARGUMENT_COMPARATOR;
+        boolean descending = comparator == DESCENDING_ARGUMENT_COMPARATOR;
+        if (!descending && comparator != DEFAULT_ARGUMENT_COMPARATOR) return new ObjectKeys(keys, comparator);
+        if (areAll(keys, Long.class, Integer.class, Short.class, Byte.class)) return new LongKeys(keys, descending);
+        if (areAll(keys, Double.class, Float.class)) return new DoubleKeys(keys, descending);
+        return new ObjectKeys(keys, comparator);
+    }
+
+    private static boolean areAll(Object[] keys, Class<?>... classes) {
+        for (Object key : keys) {
+            if (key != null && !isOneOf(key.getClass(), classes)) return false;
+        }
+        return true;
+    }
+
+    private static boolean isOneOf(Class<?> clazz, Class<?>[] classes) {
+        for (Class<?> c : classes) {
+            if (c == clazz) return true;
+        }
+        return false;
+    }
+
+    // ////////////////////////////////////////////////////////////////////////
+    // /// Stable merge sort of the indexes
+    // ////////////////////////////////////////////////////////////////////////
+
+    private static void sortIndexes(int[] indexes, int length, SortKeys keys) {
+        if (length < 2) return;
+        int[] buffer = new int[length];
+        System.arraycopy(indexes, 0, buffer, 0, length);
+        mergeSort(buffer, indexes, 0, length, keys);
+    }
+
+    static void mergeSort(int[] src, int[] dest, int low, int high, SortKeys keys) {
+        if (high - low < INSERTION_SORT_THRESHOLD) {
+            for (int i = low + 1; i < high; i++) {
+                int index = dest[i];
+                int j = i;
+                for (; j > low && keys.compare(dest[j - 1], index) > 0; j--) { dest[j] = dest[j - 1]; }
+                dest[j] = index;
+            }
+            return;
+        }
+
+        int mid = (low + high) >>> 1;
+        mergeSort(dest, src, low, mid, keys);
+        mergeSort(dest, src, mid, high, keys);
+        merge(src, dest, low, mid, high, keys);
+    }
+
+    static void merge(int[] src, int[] dest, int low, int mid, int high, SortKeys keys) {
+        if (keys.compare(src[mid - 1], src[mid]) <= 0) {
+            System.arraycopy(src, low, dest, low, high - low);
+            return;
+        }
+        for (int i = low, p = low, q = mid; i < high; i++) {
+            dest[i] = q >= high || (p < mid && keys.compare(src[p], src[q]) <= 0) ? src[p++] : src[q++];
+        }
+    }
+
+    // ////////////////////////////////////////////////////////////////////////
+    // /// Extracted keys
+    // ////////////////////////////////////////////////////////////////////////
+
+    interface SortKeys {
+        int compare(int index1, int index2);
+    }
+
+    private static final class LongKeys implements SortKeys {
+        private final long[] keys;
+        private final boolean descending;
+
+        private LongKeys(Object[] values, boolean descending) {
+            keys = new long[values.length];
+            for (int i = 0; i < values.length; i++) { if (values[i] != null) keys[i] = ((Number)values[i]).longValue(); }
+            this.descending = descending;
+        }
+
+        public int compare(int index1, int index2) {
+            long key1 = keys[index1], key2 = keys[index2];
+            int comparison = key1 < key2 ? -1 : (key1 == key2 ? 0 : 1);
+            return descending ? -comparison : comparison;
+        }
+    }
+
+    private static final class DoubleKeys implements SortKeys {
+        private final double[] keys;
+        private final boolean descending;
+
+        private DoubleKeys(Object[] values, boolean descending) {
+            keys = new double[values.length];
+            for (int i = 0; i < values.length; i++) { if (values[i] != null) keys[i] = ((Number)values[i]).doubleValue(); }
+            this.descending = descending;
+        }
+
+        public int compare(int index1, int index2) {
+            int comparison = Double.compare(keys[index1], keys[index2]);
+            return descending ? -comparison : comparison;
+        }
+    }
+
+    private static final class ObjectKeys implements SortKeys {
+        private final Object[] keys;
+        private final Comparator<Object> comparator;
+
+        private ObjectKeys(Object[] keys, Comparator<Object> comparator) {
+            this.keys = keys;
+            this.comparator = comparator;
+        }
+
+        public int compare(int index1, int index2) {
+            return comparator.compare(keys[index1], keys[index2]);
+        }
+    }
+}
@@ -0,0 +1,126 @@
+// Modified or written by Lambdascale SRL for inclusion with lambdaj.
+// Copyright (c) 2009-2010 Mario Fusco.
+// Licensed under the Apache License, Version 2.0 (the "License")
+
+package ch.lambdaj.function.compare;
+
+import static ch.lambdaj.function.aggregate.ParallelAggregation.*;
+import static ch.lambdaj.function.compare.ArgumentSorter.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+import ch.lambdaj.function.aggregate.*;
+import ch.lambdaj.function.argument.*;
+
+/**
+ * Sorts a list of objects on the respective values of an argument as the {@link ArgumentSorter} does, but evaluating
+ * the argument on chunks of objects and merge sorting the chunks in parallel on a ForkJoinPool.
+ * @author Mario Fusco
+ */
+public final class ParallelArgumentSorter {
+
+    private ParallelArgumentSorter() { }
+
+    /**
+     * Sorts the objects in the given iterable on the respective values of the given argument using the default ForkJoinPool of lambdaj
+     * @param iterable The iterable of the objects to be sorted
+     * @param argument The argument whose values determine the order of the objects
+     * @param comparator The comparator used to compare the values of the argument. A null value indicates that
+     * their natural ordering should be used
+     * @return An ArrayList with the objects in the given iterable sorted on the respective value of the given argument
+     */
+    public static <T, A> List<T> sort(Object iterable, Argument<A> argument, Comparator<A> comparator) {
+        return sort(ParallelAggregation.getDefaultPool(), iterable, argument, comparator);
+    }
+
+    /**
+     * Sorts the objects in the given iterable on the respective values of the given argument using the given ForkJoinPool
+     * @param pool The pool on which the argument is evaluated and the objects are sorted
+     * @param iterable The iterable of the objects to be sorted
+     * @param argument The argument whose values determine the order of the objects
+     * @param comparator The comparator used to compare the values of the argument. A null value indicates that
+     * their natural ordering should be used
+     * @return An ArrayList with the objects in the given iterable sorted on the respective value of the given argument
+     */
+    @SuppressWarnings("unchecked")
+    public static <T, A> List<T> sort(ForkJoinPool pool, Object iterable, Argument<A> argument, Comparator<A> comparator) {
+        List<?> items = toRandomAccessList(iterable);
+        int size = items.size();
+        int chunkSize = getChunkSize(pool, size);
+        if (size <= chunkSize) return ArgumentSorter.sort(items.iterator(), argument, comparator);
+
+        Object[] keys = new Object[size];
+        pool.invoke(new KeysExtractionTask(items, keys, argument, 0, size, chunkSize));
+
+        int[] indexes = new int[size];
+        int nonNullKeys = partitionNullKeys(keys, indexes);
+        if (nonNullKeys > 1) {
+            int[] buffer = new int[nonNullKeys];
+            System.arraycopy(indexes, 0, buffer, 0, nonNullKeys);
+            pool.invoke(new MergeSortTask(buffer, indexes, 0, nonNullKeys, chunkSize, createKeys(keys, (Comparator<Object>)comparator)));
+        }
+        return toList(items, indexes);
+    }
+
+    private static final class KeysExtractionTask extends RecursiveAction {
+
+        private final List<?> items;
+        private final Object[] keys;
+        private final Argument<?> argument;
+        private final int from;
+        private final int to;
+        private final int chunkSize;
+
+        private KeysExtractionTask(List<?> items, Object[] keys, Argument<?> argument, int from, int to, int chunkSize) {
+            this.items = items;
+            this.keys = keys;
+            this.argument = argument;
+            this.from = from;
+            this.to = to;
+            this.chunkSize = chunkSize;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= chunkSize) {
+                for (int i = from; i < to; i++) { keys[i] = argument.evaluate(items.get(i)); }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new KeysExtractionTask(items, keys, argument, from, middle, chunkSize),
+                      new KeysExtractionTask(items, keys, argument, middle, to, chunkSize));
+        }
+    }
+
+    private static final class MergeSortTask extends RecursiveAction {
+
+        private final int[] src;
+        private final int[] dest;
+        private final int low;
+        private final int high;
+        private final int chunkSize;
+        private final SortKeys keys;
+
+        private MergeSortTask(int[] src, int[] dest, int low, int high, int chunkSize, SortKeys keys) {
+            this.src = src;
+            this.dest = dest;
+            this.low = low;
+            this.high = high;
+            this.chunkSize = chunkSize;
+            this.keys = keys;
+        }
+
+        @Override
+        protected void compute() {
+            if (high - low <= chunkSize) {
+                mergeSort(src, dest, low, high, keys);
+                return;
+            }
+            int middle = (low + high) >>> 1;
+            invokeAll(new MergeSortTask(dest, src, low, middle, chunkSize, keys),
+                      new MergeSortTask(dest, src, middle, high, chunkSize, keys));
+            merge(src, dest, low, middle, high, keys);
+        }
+    }
+}
@@ -17,6 +17,10 @@ public final class AndMatcher<T> extends LambdaJMatcher<T> {
 	private AndMatcher(Matcher<T>... matchers) {
 		this.matchers = matchers;
 	}
+
+    Matcher<T>[] getMatchers() {
+        return matchers;
+    }
 	
     /**
      * {@inheritDoc}
@@ -0,0 +1,158 @@
+// Modified or written by Lambdascale SRL for inclusion with lambdaj.
+// Copyright (c) 2009-2010 Mario Fusco.
+// Licensed under the Apache License, Version 2.0 (the "License")
+
+package ch.lambdaj.function.matcher;
+
+import ch.lambdaj.function.argument.*;
+import org.hamcrest.*;
+
+import java.util.*;
+
+/**
+ * A matcher resulting from the compilation of a tree of {@link AndMatcher}, {@link OrMatcher} and {@link HasArgumentWithValue}.
+ * The nested ands and ors are flattened and the arguments of all the HasArgumentWithValue in the tree are merged in a
+ * single {@link ArgumentTree}, so when the same item is matched against more arguments sharing a prefix, like
+ * <code>on(Sale.class).getBuyer().isMale()</code> and <code>on(Sale.class).getBuyer().getAge()</code>, the shared
+ * invocations are evaluated only once. The conditions are still evaluated in order and short-circuited, and an
+ * argument is evaluated only when the condition on it is actually checked.
+ * @author Mario Fusco
+ */
+public final class CompiledMatcher<T> extends LambdaJMatcher<T> {
+
+    private final Matcher<?> source;
+    private final ArgumentTree arguments;
+    private final Condition condition;
+
+    private CompiledMatcher(Matcher<?> source, ArgumentTree arguments, Condition condition) {
+        this.source = source;
+        this.arguments = arguments;
+        this.condition = condition;
+    }
+
+    /**
+     * Compiles the given matcher
+     * @param matcher The matcher to be compiled
+     * @return A matcher equivalent to the given one that shares the evaluation of the common prefixes of its arguments
+     */
+    @Factory
+    public static <T> CompiledMatcher<T> compile(Matcher<T> matcher) {
+        if (matcher instanceof CompiledMatcher) return (CompiledMatcher<T>)matcher;
+        List<Argument<?>> arguments = new ArrayList<Argument<?>>();
+        Condition condition = compile(matcher, arguments);
+        return new CompiledMatcher<T>(matcher, arguments.isEmpty() ? null : ArgumentTree.of(arguments), condition);
+    }
+
+    private static Condition compile(Matcher<?> matcher, List<Argument<?>> arguments) {
+        if (matcher instanceof AndMatcher) return new AllCondition(compile(((AndMatcher<?>)matcher).getMatchers(), AndMatcher.class, arguments));
+        if (matcher instanceof OrMatcher) return new AnyCondition(compile(((OrMatcher<?>)matcher).getMatchers(), OrMatcher.class, arguments));
+        if (matcher instanceof HasArgumentWithValue) {
+            HasArgumentWithValue<?, ?> hasArgument = (HasArgumentWithValue<?, ?>)matcher;
+            if (hasArgument.getArgument() == null) return FALSE;
+            int index = arguments.indexOf(hasArgument.getArgument());
+            if (index < 0) {
+                index = arguments.size();
+                arguments.add(hasArgument.getArgument());
+            }
+            return new ArgumentCondition(index, hasArgument.getArgument().getFirstMethodDeclaringClass(), hasArgument.getValue());
+        }
+        return new ItemCondition(matcher);
+    }
+
+    private static Condition[] compile(Matcher<?>[] matchers, Class<?> flattenedClass, List<Argument<?>> arguments) {
+        List<Condition> conditions = new ArrayList<Condition>();
+        for (Matcher<?> matcher : matchers) {
+            if (flattenedClass.isInstance(matcher)) {
+                Matcher<?>[] nested = matcher instanceof AndMatcher ? ((AndMatcher<?>)matcher).getMatchers() : ((OrMatcher<?>)matcher).getMatchers();
+                conditions.addAll(Arrays.asList(compile(nested, flattenedClass, arguments)));
+            } else {
+                conditions.add(compile(matcher, arguments));
+            }
+        }
+        return conditions.toArray(new Condition[conditions.size()]);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public boolean matches(Object item) {
+        return condition.matches(item, arguments == null ? null : arguments.evaluate(item));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void describeTo(Description description) {
+        source.describeTo(description);
+    }
+
+    private static abstract class Condition {
+        abstract boolean matches(Object item, ArgumentTree.Evaluation evaluation);
+    }
+
+    private static final Condition FALSE = new Condition() {
+        boolean matches(Object item, ArgumentTree.Evaluation evaluation) {
+            return false;
+        }
+    };
+
+    private static final class AllCondition extends Condition {
+        private final Condition[] conditions;
+
+        private AllCondition(Condition[] conditions) {
+            this.conditions = conditions;
+        }
+
+        boolean matches(Object item, ArgumentTree.Evaluation evaluation) {
+            for (Condition condition : conditions) { if (!condition.matches(item, evaluation)) return false; }
+            return true;
+        }
+    }
+
+    private static final class AnyCondition extends Condition {
+        private final Condition[] conditions;
+
+        private AnyCondition(Condition[] conditions) {
+            this.conditions = conditions;
+        }
+
+        boolean matches(Object item, ArgumentTree.Evaluation evaluation) {
+            for (Condition condition : conditions) { if (condition.matches(item, evaluation)) return true; }
+            return false;
+        }
+    }
+
+    private static final class ArgumentCondition extends Condition {
+        private final int argumentIndex;
+        private final Class<?> declaringClass;
+        private final Matcher<?> value;
+
+        private ArgumentCondition(int argumentIndex, Class<?> declaringClass, Matcher<?> value) {
+            this.argumentIndex = argumentIndex;
+            this.declaringClass = declaringClass;
+            this.value = value;
+        }
+
+        boolean matches(Object item, ArgumentTree.Evaluation evaluation) {
+            if (item != null && !declaringClass.isInstance(item)) return false;
+            try {
+                return value.matches(evaluation.get(argumentIndex));
+            } catch (Exception e) {
+                return false;
+            }
+        }
+    }
+
+    private static final class ItemCondition extends Condition {
+        private final Matcher<?> matcher;
+
+        private ItemCondition(Matcher<?> matcher) {
+            this.matcher = matcher;
+        }
+
+        boolean matches(Object item, ArgumentTree.Evaluation evaluation) {
+            return matcher.matches(item);
+        }
+    }
+}
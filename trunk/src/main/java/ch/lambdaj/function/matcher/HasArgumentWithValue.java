@@ -24,11 +24,21 @@ public final class HasArgumentWithValue<T, A> extends LambdaJMatcher<T> {
         this.value = value;
     }
 
+    Argument<A> getArgument() {
+        return argument;
+    }
+
+    Matcher<?> getValue() {
+        return value;
+    }
+
     /**
      * {@inheritDoc}
      */
 	public boolean matches(Object item) {
 		if (argument == null) return false;
+        // an item not declaring the first invoked method cannot have the argument, so it is discarded without trying to evaluate it
+        if (item != null && !argument.getFirstMethodDeclaringClass().isInstance(item)) return false;
         try {
             return value.matches(argument.evaluate(item));
         } catch (Exception e) {
@@ -14,6 +14,8 @@ import org.hamcrest.*;
  */
 public class HasNestedPropertyWithValue<T> extends LambdaJMatcher<T> {
 
+    private static final Object MISSING_PROPERTY = new Object();
+
     private final String propertyName;
     private final Matcher<?> value;
 
@@ -32,10 +34,12 @@ public class HasNestedPropertyWithValue<T> extends LambdaJMatcher<T> {
      */
 	public boolean matches(Object item) {
         try {
-            return value.matches(getPropertyValue(item, propertyName));
+            Object propertyValue = getPropertyValueOrDefault(item, propertyName, MISSING_PROPERTY);
+            return propertyValue != MISSING_PROPERTY && value.matches(propertyValue);
         } catch (Exception e) {
+            // thrown only by a failing accessor or matcher, since a missing property is reported by MISSING_PROPERTY
             return false;
-        } 
+        }
 	}
 
     /**
@@ -34,6 +34,14 @@ public abstract class LambdaJMatcher<T> extends BaseMatcher<T> {
 		return OrMatcher.or(this, matcher);
 	}
 
+    /**
+     * Compiles this matcher in an equivalent one that evaluates only once the invocations shared by its arguments
+     * @return A {@link CompiledMatcher} equivalent to this matcher
+     */
+    public final LambdaJMatcher<T> compile() {
+        return CompiledMatcher.compile(this);
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -17,6 +17,10 @@ public final class OrMatcher<T> extends LambdaJMatcher<T> {
 	private OrMatcher(Matcher<T>... matchers) {
 		this.matchers = matchers;
 	}
+
+    Matcher<T>[] getMatchers() {
+        return matchers;
+    }
 	
     /**
      * {@inheritDoc}
@@ -0,0 +1,85 @@
+// Modified or written by Lambdascale SRL for inclusion with lambdaj.
+// Copyright (c) 2009-2010 Mario Fusco.
+// Licensed under the Apache License, Version 2.0 (the "License")
+
+package ch.lambdaj.group;
+
+import java.util.*;
+
+/**
+ * The key of a group together with the values of the aggregates computed on its items
+ * by the {@link Groups#aggregate(Iterable, GroupCondition, GroupAggregate[])} method
+ * @author Mario Fusco
+ */
+public final class AggregatedGroup {
+
+    private final Object key;
+    private final GroupAggregate<Object>[] aggregates;
+    private final Object[] values;
+    private boolean completed;
+
+    AggregatedGroup(Object key, GroupAggregate<Object>[] aggregates) {
+        this.key = key;
+        this.aggregates = aggregates;
+        values = new Object[aggregates.length];
+        for (int i = 0; i < aggregates.length; i++) { values[i] = aggregates[i].identity(); }
+    }
+
+    void accumulate(Object item) {
+        for (int i = 0; i < aggregates.length; i++) { values[i] = aggregates[i].accumulate(values[i], item); }
+    }
+
+    void complete() {
+        for (int i = 0; i < aggregates.length; i++) { values[i] = aggregates[i].result(values[i]); }
+        completed = true;
+    }
+
+    /**
+     * Returns the key of this group
+     * @return The value that all the items in this group have on the condition used to group them
+     */
+    public Object key() {
+        return key;
+    }
+
+    /**
+     * Returns the value of the aggregate at the given position
+     * @param index The position of the aggregate, as passed to the aggregate method
+     * @return The value of the aggregate at the given position
+     */
+    public Object get(int index) {
+        if (!completed) throw new IllegalStateException("The aggregation of this group is not completed yet");
+        return values[index];
+    }
+
+    /**
+     * Returns the value of the aggregate with the given name
+     * @param name The name of the aggregate
+     * @return The value of the aggregate with the given name
+     * @throws IllegalArgumentException if there isn't any aggregate with the given name
+     */
+    public Object get(String name) {
+        for (int i = 0; i < aggregates.length; i++) {
+            if (aggregates[i].getName().equals(name)) return get(i);
+        }
+        throw new IllegalArgumentException("Unknown aggregate: " + name);
+    }
+
+    /**
+     * Returns the values of all the aggregates indexed by their names
+     * @return A Map of the aggregates' values having the aggregates' names as keys
+     */
+    public Map<String, Object> asMap() {
+        Map<String, Object> map = new LinkedHashMap<String, Object>();
+        for (int i = 0; i < aggregates.length; i++) { map.put(aggregates[i].getName(), get(i)); }
+        return map;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return key + "=" + asMap();
+    }
+}
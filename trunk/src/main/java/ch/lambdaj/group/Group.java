@@ -43,21 +43,25 @@ public interface Group<T> {
 	List<Group<T>> subgroups();
 
 	/**
-	 * Returns all the items in the subgroup indexed with the given key
+	 * Returns all the items in the subgroup indexed with the given key.
+	 * The returned list is a read-only view of the items of that subgroup, so it has to be copied in order to be modified.
 	 * @param key The key that identifies the searched subgroup
 	 * @return all the object in the subgroup with the given key or an empty List if such group doesn't exist or is empty
 	 */
 	List<T> find(String key);
 	
 	/**
-	 * Returns all the items in the subgroup indexed with the given key
+	 * Returns all the items in the subgroup indexed with the given key.
+	 * The returned list is a read-only view of the items of that subgroup, so it has to be copied in order to be modified.
 	 * @param key The key that identifies the searched subgroup
 	 * @return all the object in the subgroup with the given key or an empty List if such group doesn't exist or is empty
 	 */
 	List<T> find(Object key);
 
 	/**
-	 * Returns all the items in this group
+	 * Returns all the items in this group.
+	 * The returned list is a read-only view of the items of this group, so it has to be copied in order to be modified.
+	 * @return all the items in this group
 	 */
 	List<T> findAll();
 
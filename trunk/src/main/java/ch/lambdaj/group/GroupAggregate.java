@@ -0,0 +1,63 @@
+// Modified or written by Lambdascale SRL for inclusion with lambdaj.
+// Copyright (c) 2009-2010 Mario Fusco.
+// Licensed under the Apache License, Version 2.0 (the "License")
+
+package ch.lambdaj.group;
+
+import ch.lambdaj.function.aggregate.*;
+import ch.lambdaj.function.argument.*;
+
+/**
+ * Defines an aggregate computed on each group by the {@link Groups#aggregate(Iterable, GroupCondition, GroupAggregate[])} method,
+ * as the aggregation of the values of an argument, or of the items themselves, through a combinable aggregator
+ * @author Mario Fusco
+ */
+public final class GroupAggregate<A> {
+
+    private final CombinableAggregator<Object, A> aggregator;
+    private final Argument<?> argument;
+    private String name;
+
+    /**
+     * Creates an aggregate of the values of the given argument on the items of each group
+     * @param aggregator The aggregator used to aggregate the values of the argument
+     * @param argument The argument whose values are aggregated or null to aggregate the items themselves
+     * @param name The name of this aggregate
+     */
+    @SuppressWarnings("unchecked")
+    public GroupAggregate(CombinableAggregator<?, A> aggregator, Argument<?> argument, String name) {
+        this.aggregator = (CombinableAggregator<Object, A>)aggregator;
+        this.argument = argument;
+        this.name = name;
+    }
+
+    /**
+     * Sets the name of this aggregate
+     * @param alias The name of this aggregate
+     * @return The GroupAggregate itself in order to allow a fluent interface
+     */
+    public GroupAggregate<A> as(String alias) {
+        name = alias;
+        return this;
+    }
+
+    /**
+     * Returns the name of this aggregate
+     * @return The name of this aggregate
+     */
+    public String getName() {
+        return name;
+    }
+
+    A identity() {
+        return aggregator.identity();
+    }
+
+    A accumulate(A accumulation, Object item) {
+        return aggregator.accumulate(accumulation, argument == null ? item : argument.evaluate(item));
+    }
+
+    Object result(A accumulation) {
+        return aggregator.result(accumulation);
+    }
+}
@@ -17,7 +17,7 @@ import java.io.*;
  * by the object that is the key for a group itself
  * @author Mario Fusco
  */
-class GroupComparator<A extends Comparable<A>> implements Comparator<GroupItem<?>>, Serializable {
+class GroupComparator<A extends Comparable<A>> implements Comparator<GroupNode<?>>, Serializable {
 
     private final Argument<A> argument;
 
@@ -40,7 +40,7 @@ class GroupComparator<A extends Comparable<A>> implements Comparator<GroupItem<?
     /**
      * {@inheritDoc}
      */
-    public int compare(GroupItem<?> group1, GroupItem<?> group2) {
+    public int compare(GroupNode<?> group1, GroupNode<?> group2) {
         return nullSafeCompare(argument.evaluate(group1.getGroupKey()), argument.evaluate(group2.getGroupKey()));
     }
 }
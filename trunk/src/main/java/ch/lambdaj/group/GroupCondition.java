@@ -41,13 +41,18 @@ public abstract class GroupCondition<T> {
 
     protected abstract String getAdditionalPropertyValue(String name, Object item);
 
-    <I> GroupItem<I> create(I item, Object key, String keyAsString) {
-        GroupItem<I> groupItem = new GroupItem<I>(key, getAlias());
-        groupItem.put(getGroupName(), keyAsString);
-        for (String propertyName : getAdditionalPropertyNames()) {
-            groupItem.put(propertyName, getAdditionalPropertyValue(propertyName, item));
+    <I> GroupNode<I> create(I item, Object key, String keyAsString) {
+        Collection<String> propertyNames = getAdditionalPropertyNames();
+        String[] headNames = new String[propertyNames.size() + 1];
+        String[] headValues = new String[headNames.length];
+        headNames[0] = getGroupName();
+        headValues[0] = keyAsString;
+        int i = 1;
+        for (String propertyName : propertyNames) {
+            headNames[i] = propertyName;
+            headValues[i++] = getAdditionalPropertyValue(propertyName, item);
         }
-        return groupItem;
+        return new GroupNode<I>(key, getAlias(), headNames, headValues);
     }
 
     protected String asNotNullString(Object key) {
@@ -65,7 +70,7 @@ public abstract class GroupCondition<T> {
         return this;
     }
 
-    <G> void sortGroup(List<GroupItem<G>> group) {
+    <G> void sortGroup(List<GroupNode<G>> group) {
         if (groupComparator != null) Collections.sort(group, groupComparator);
     }
 }
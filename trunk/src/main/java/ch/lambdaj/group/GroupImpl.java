@@ -4,44 +4,148 @@
 
 package ch.lambdaj.group;
 
+import java.io.*;
 import java.util.*;
 
 /**
- * The standard LambdaJ implementation for the Group interface
+ * The standard LambdaJ implementation for the Group interface.
+ * The subgroups are indexed by their keys through their equals and hashCode methods. The string representations of the keys,
+ * used by the methods looking up a subgroup by a String, are indexed only when one of those methods is invoked.
+ * As a list this group contains the {@link GroupItem} views of its subgroups, that are created only when they are accessed.
  * @author Mario Fusco
  */
-class GroupImpl<T> extends LinkedList<GroupItem<T>> implements Group<T> {
+class GroupImpl<T> extends AbstractList<GroupItem<T>> implements Group<T>, Serializable {
 
 	private static final long serialVersionUID = 1L;
 
-	private final Map<String, GroupItem<T>> groupsMap = new HashMap<String, GroupItem<T>>();
+	private final List<GroupNode<T>> nodes = new ArrayList<GroupNode<T>>();
+	private final Map<Object, GroupNode<T>> groupsMap = new HashMap<Object, GroupNode<T>>();
+	private transient Map<String, GroupNode<T>> groupsByName;
 
+	private final GroupCondition<?>[] conditions;
+	private final int level;
 	private final GroupCondition<?> groupCondition;
 
     private Object key;
+    private int itemsCount;
+    private transient int[] offsets;
+    private transient List<T> itemsView;
 
-	GroupImpl(GroupCondition<?> groupCondition) {
-		this.groupCondition = groupCondition;
+	GroupImpl(GroupCondition<?>... conditions) {
+		this(conditions, 0);
 	}
 
+	private GroupImpl(GroupCondition<?>[] conditions, int level) {
+		this.conditions = conditions;
+		this.level = level;
+		this.groupCondition = conditions[level];
+	}
+
+    /**
+     * Returns the Map-shaped view of the subgroup in the given position
+     * @param index The position of the subgroup
+     * @return The GroupItem of the subgroup in the given position
+     */
+	@Override
+	public GroupItem<T> get(int index) {
+		return nodes.get(index).asItem();
+	}
+
+    /**
+     * Returns the number of subgroups of this group
+     * @return The number of subgroups of this group
+     */
+	@Override
+	public int size() {
+		return nodes.size();
+	}
+
+    /**
+     * Routes the given item down to the leaf group identified by the values it has on the conditions of all the levels
+     * @param item The item to be grouped
+     */
 	void addItem(T item) {
-		GroupItem<T> groupItem = findOrCreate(item, groupCondition.getGroupValue(item));
-		groupItem.addChild(item);
+		GroupImpl<T> group = this;
+		group.itemAdded();
+		GroupNode<T> node = group.findOrCreate(item, group.groupCondition.getGroupValue(item));
+		while (!node.isLeaf()) {
+			group = node.getSubgroups();
+			group.itemAdded();
+			node = group.findOrCreate(item, group.groupCondition.getGroupValue(item));
+		}
+		node.addChild(item);
+	}
+
+	private void itemAdded() {
+		itemsCount++;
+		offsets = null;
+	}
+
+    /**
+     * Appends to this group the items of another group built with the same conditions on the items following the ones
+     * of this group, so the subgroups of both keep the order in which their keys have been met for the first time
+     * @param other The group to be merged into this one
+     */
+	void merge(GroupImpl<T> other) {
+		itemsCount += other.itemsCount;
+		offsets = null;
+		for (GroupNode<T> otherNode : other.nodes) {
+			GroupNode<T> node = groupsMap.get(otherNode.getGroupKey());
+			if (node != null) node.merge(otherNode);
+			else {
+				groupsMap.put(otherNode.getGroupKey(), otherNode);
+				nodes.add(otherNode);
+				groupsByName = null;
+			}
+		}
+	}
+
+    /**
+     * Sorts the subgroups of this group, at any level, as defined by the conditions that created them
+     */
+	void sortGroups() {
+		for (GroupNode<T> node : nodes) {
+			if (!node.isLeaf()) node.getSubgroups().sortGroups();
+		}
+		groupCondition.sortGroup(nodes);
+		offsets = null;
 	}
 
-	private GroupItem<T> findOrCreate(T item, Object key) {
-        String keyAsString = key == null ? "" : key.toString();
-		GroupItem<T> groupItem = groupsMap.get(keyAsString);
-		return groupItem != null ? groupItem : create(item, key, keyAsString);
+	private GroupNode<T> findOrCreate(T item, Object key) {
+		GroupNode<T> node = groupsMap.get(key);
+		return node != null ? node : create(item, key);
 	}
 
-	private GroupItem<T> create(T item, Object key, String keyAsString) {
-        GroupItem<T> groupItem = groupCondition.create(item, key, keyAsString);
-        groupsMap.put(keyAsString, groupItem);
-        add(groupItem);
-        return groupItem;
+	private GroupNode<T> create(T item, Object key) {
+        GroupNode<T> node = groupCondition.create(item, key, asString(key));
+        if (level + 1 < conditions.length) node.setChildren(new GroupImpl<T>(conditions, level + 1));
+        groupsMap.put(key, node);
+        nodes.add(node);
+        groupsByName = null;
+        return node;
 	}
 
+    private static String asString(Object key) {
+        return key == null ? "" : key.toString();
+    }
+
+    private Map<String, GroupNode<T>> getGroupsByName() {
+        if (groupsByName == null) {
+            Map<String, GroupNode<T>> byName = new LinkedHashMap<String, GroupNode<T>>();
+            for (GroupNode<T> node : nodes) {
+                String name = asString(node.getGroupKey());
+                if (!byName.containsKey(name)) byName.put(name, node);
+            }
+            groupsByName = byName;
+        }
+        return groupsByName;
+    }
+
+    private GroupNode<T> findNode(Object key) {
+        GroupNode<T> node = groupsMap.get(key);
+        return node != null || key == null ? node : getGroupsByName().get(key.toString());
+    }
+
     /**
      * Returns the key of this group
      */
@@ -57,7 +161,7 @@ class GroupImpl<T> extends LinkedList<GroupItem<T>> implements Group<T> {
      * Returns the set of the keys of the subgroups of this group
      */
 	public Set<String> keySet() {
-		return groupsMap.keySet();
+		return getGroupsByName().keySet();
 	}
 
     /**
@@ -66,8 +170,8 @@ class GroupImpl<T> extends LinkedList<GroupItem<T>> implements Group<T> {
      * @return the subgroup with the given key or null if such a group doesn't exist
      */
 	public Group<T> findGroup(String key) {
-		GroupItem<T> groupItem = groupsMap.get(key);
-		return groupItem == null ? null : groupItem.asGroup();
+		GroupNode<T> node = getGroupsByName().get(key);
+		return node == null ? null : node.asGroup();
 	}
 
     /**
@@ -76,17 +180,17 @@ class GroupImpl<T> extends LinkedList<GroupItem<T>> implements Group<T> {
      * @return the subgroup with the given key or null if such a group doesn't exist
      */
 	public Group<T> findGroup(Object key) {
-		return findGroup(key.toString());
+		GroupNode<T> node = findNode(key);
+		return node == null ? null : node.asGroup();
 	}
 	
     /**
      * Returns all the subgroups of this group or an empty one if this group is a leaf
      * @return the list of all the subgroups of this group
      */
-	@SuppressWarnings("unchecked")
 	public List<Group<T>> subgroups() {
-        List<Group<T>> resultList = new LinkedList<Group<T>>();
-        for (GroupItem<T> groupItem : this) { resultList.add(groupItem.asGroup()); }
+        List<Group<T>> resultList = new ArrayList<Group<T>>(nodes.size());
+        for (GroupNode<T> node : nodes) { resultList.add(node.asGroup()); }
         return resultList;
 	}
 	
@@ -96,8 +200,8 @@ class GroupImpl<T> extends LinkedList<GroupItem<T>> implements Group<T> {
      * @return all the object in the subgroup with the given key or an empty List if such group doesn't exist or is empty
      */
 	public List<T> find(String key) {
-		GroupItem<T> groupItem = groupsMap.get(key);
-		return groupItem == null ? new LinkedList<T>() : groupItem.asList();
+		GroupNode<T> node = getGroupsByName().get(key);
+		return node == null ? Collections.<T>emptyList() : node.asList();
 	}
 
     /**
@@ -107,30 +211,54 @@ class GroupImpl<T> extends LinkedList<GroupItem<T>> implements Group<T> {
      */
 
 	public List<T> find(Object key) {
-		return find(key.toString());
+		GroupNode<T> node = findNode(key);
+		return node == null ? Collections.<T>emptyList() : node.asList();
 	}
 	
     /**
-     * Returns all the items in this group
+     * Returns a read-only view of all the items in this group, that doesn't copy the items of its subgroups
      */
 	public List<T> findAll() {
-		List<T> allItems = new LinkedList<T>();
-		for (GroupItem<T> groupItem : this) { allItems.addAll(groupItem.asList()); }
-		return allItems;
+		if (itemsView == null) itemsView = new ItemsView();
+		return itemsView;
+	}
+
+    /**
+     * Returns the item in the given position among all the items of this group, looking up the subgroup containing it
+     * through a binary search on the number of items preceding each subgroup, computed only when they change
+     */
+	T getItem(int index) {
+		int[] groupOffsets = getOffsets();
+		int position = Arrays.binarySearch(groupOffsets, index);
+		if (position < 0) position = -position - 2;
+		return nodes.get(position).getItem(index - groupOffsets[position]);
+	}
+
+	private int[] getOffsets() {
+		if (offsets == null) {
+			int[] groupOffsets = new int[nodes.size()];
+			int offset = 0;
+			for (int i = 0; i < groupOffsets.length; i++) {
+				groupOffsets[i] = offset;
+				offset += nodes.get(i).getSize();
+			}
+			offsets = groupOffsets;
+		}
+		return offsets;
 	}
 
     /**
      * Returns the first item in this group
      */
     public T first() {
-        return get(0).asList().get(0);
+        return nodes.get(0).first();
     }
 	
     /**
      * Returns how many items are present in this group.
      */
 	public int getSize() {
-		return findAll().size();
+		return itemsCount;
 	}
 	
     /**
@@ -154,4 +282,43 @@ class GroupImpl<T> extends LinkedList<GroupItem<T>> implements Group<T> {
 	public String getHeadValue(String key) {
 		return "";
 	}
+
+    /**
+     * A read-only list of the items in all the subgroups of this group
+     */
+    private final class ItemsView extends AbstractList<T> {
+
+        @Override
+        public int size() {
+            return itemsCount;
+        }
+
+        @Override
+        public T get(int index) {
+            if (index < 0 || index >= itemsCount) throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + itemsCount);
+            return getItem(index);
+        }
+
+        @Override
+        public Iterator<T> iterator() {
+            return new Iterator<T>() {
+                private final Iterator<GroupNode<T>> groupNodes = nodes.iterator();
+                private Iterator<T> items = Collections.<T>emptyList().iterator();
+
+                public boolean hasNext() {
+                    while (!items.hasNext() && groupNodes.hasNext()) { items = groupNodes.next().iterator(); }
+                    return items.hasNext();
+                }
+
+                public T next() {
+                    if (!hasNext()) throw new NoSuchElementException();
+                    return items.next();
+                }
+
+                public void remove() {
+                    throw new UnsupportedOperationException();
+                }
+            };
+        }
+    }
 }
@@ -7,77 +7,35 @@ package ch.lambdaj.group;
 import java.util.*;
 
 /**
+ * The Map-shaped view of a subgroup, having its headers and its children node as entries. It is built only when the
+ * group is accessed as a list of maps, for example while exporting it in JSON. It is still a mutable TreeMap, but any
+ * change made through it only affects this view and not the items of the group.
  * @author Mario Fusco
  */
 public class GroupItem<T> extends TreeMap<String, Object> implements Iterable<T> {
 
 	private static final long serialVersionUID = 1L;
-	
-	private static final String CHILDREN_NODE = "children";
-	private String childrenNodeName = CHILDREN_NODE;
 
-	private boolean leaf = true;
+    private final GroupNode<T> node;
 
-    private final Object groupKey;
-
-	GroupItem() {
-        groupKey = null;
-    }
-
-	GroupItem(Object groupKey, String childrenNodeName) {
-        this.groupKey = groupKey;
-		if (childrenNodeName != null) this.childrenNodeName = childrenNodeName;
-	}
-
-    Object getGroupKey() {
-        return groupKey;
-    }
-
-	private String getChildrenNodeName() {
-		return childrenNodeName;
-	}
-	
-	@SuppressWarnings("unchecked")
-	private List<T> getChildren() {
-		List<T> children = (List<T>) get(getChildrenNodeName());
-		if (children == null) {
-			children = new LinkedList<T>();
-			put(getChildrenNodeName(), children);
-		}
-		return children;
+	GroupItem(GroupNode<T> node) {
+        super(node.getHeads());
+        this.node = node;
+        put(node.getChildrenNodeName(), node.getChildrenNode());
 	}
 
     /**
      * Convert this GroupItem in the corresponding Group
      * @return The Group wrapping this GroupItem
      */
-	@SuppressWarnings("unchecked")
 	public Group<T> asGroup() {
-		return leaf ? new LeafGroup<T>(this, getChildrenNodeName()) : (Group<T>)get(getChildrenNodeName());
+		return node.asGroup();
 	}
 
     /**
      * {@inheritDoc}
      */
 	public Iterator<T> iterator() {
-		return asList().iterator();
-	}
-	
-	List<T> asList() {
-		if (leaf) return getChildren();
-		List<T> leafs = new LinkedList<T>();
-		for (T item : asGroup().findAll()) { leafs.add(item); }
-		return leafs;
-	}
-
-	void addChild(T child) {
-		if (!leaf) throw new IllegalStateException("cannot add a child to a non-leaf group");
-		getChildren().add(child);
-	}
-
-	void setChildren(GroupImpl<T> children) {
-		leaf = false;
-        children.setKey(getGroupKey());
-		put(getChildrenNodeName(), children);
+		return node.iterator();
 	}
 }
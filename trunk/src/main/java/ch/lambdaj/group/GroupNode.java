@@ -0,0 +1,116 @@
+// Modified or written by Lambdascale SRL for inclusion with lambdaj.
+// Copyright (c) 2009-2010 Mario Fusco.
+// Licensed under the Apache License, Version 2.0 (the "License")
+
+package ch.lambdaj.group;
+
+import java.io.*;
+import java.util.*;
+
+/**
+ * A node of a group holding the key on which its items have been grouped, the values of its headers and either its
+ * items, stored in a growable array, or its subgroups. Its Map-shaped view, the {@link GroupItem}, is built only when
+ * the group is accessed as a list of maps, for example while exporting it in JSON.
+ * @author Mario Fusco
+ */
+class GroupNode<T> implements Iterable<T>, Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	private static final String CHILDREN_NODE = "children";
+	private String childrenNodeName = CHILDREN_NODE;
+
+    private final Object groupKey;
+    private final String[] headNames;
+    private final String[] headValues;
+
+    private final List<T> children = new ArrayList<T>();
+    private final List<T> readOnlyChildren = Collections.unmodifiableList(children);
+    private GroupImpl<T> subgroups;
+
+    private GroupItem<T> item;
+
+	GroupNode(Object groupKey, String childrenNodeName, String[] headNames, String[] headValues) {
+        this.groupKey = groupKey;
+		if (childrenNodeName != null) this.childrenNodeName = childrenNodeName;
+        this.headNames = headNames;
+        this.headValues = headValues;
+	}
+
+    Object getGroupKey() {
+        return groupKey;
+    }
+
+    String getChildrenNodeName() {
+        return childrenNodeName;
+    }
+
+    Map<String, String> getHeads() {
+        Map<String, String> heads = new TreeMap<String, String>();
+        for (int i = 0; i < headNames.length; i++) { heads.put(headNames[i], headValues[i]); }
+        heads.remove(childrenNodeName);
+        return heads;
+    }
+
+    Object getChildrenNode() {
+        return subgroups != null ? subgroups : readOnlyChildren;
+    }
+
+    /**
+     * Returns the Map-shaped view of this node, creating it the first time it is requested
+     */
+    GroupItem<T> asItem() {
+        if (item == null) item = new GroupItem<T>(this);
+        return item;
+    }
+
+	Group<T> asGroup() {
+		return subgroups == null ? new LeafGroup<T>(this) : subgroups;
+	}
+
+    /**
+     * {@inheritDoc}
+     */
+	public Iterator<T> iterator() {
+		return asList().iterator();
+	}
+
+	List<T> asList() {
+		return subgroups == null ? readOnlyChildren : subgroups.findAll();
+	}
+
+	T getItem(int index) {
+		return subgroups == null ? children.get(index) : subgroups.getItem(index);
+	}
+
+	int getSize() {
+		return subgroups == null ? children.size() : subgroups.getSize();
+	}
+
+	T first() {
+		return subgroups == null ? children.get(0) : subgroups.first();
+	}
+
+	void addChild(T child) {
+		if (subgroups != null) throw new IllegalStateException("cannot add a child to a non-leaf group");
+		children.add(child);
+	}
+
+	boolean isLeaf() {
+		return subgroups == null;
+	}
+
+	GroupImpl<T> getSubgroups() {
+		return subgroups;
+	}
+
+	void merge(GroupNode<T> other) {
+		if (subgroups == null) children.addAll(other.children);
+		else subgroups.merge(other.subgroups);
+	}
+
+	void setChildren(GroupImpl<T> children) {
+        children.setKey(getGroupKey());
+		subgroups = children;
+	}
+}
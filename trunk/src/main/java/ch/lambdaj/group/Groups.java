@@ -4,7 +4,13 @@
 
 package ch.lambdaj.group;
 
+import static ch.lambdaj.function.argument.ArgumentsFactory.*;
+
+import ch.lambdaj.function.aggregate.*;
+import ch.lambdaj.function.argument.*;
+
 import java.util.*;
+import java.util.concurrent.*;
 
 /**
  * This class consists exclusively of static methods that allow to use the lambdaj grouping feature.
@@ -47,23 +53,132 @@ public final class Groups {
 	}
 
     /**
-     * Organizes the given list of items in (hierarchy of) groups based on the given grouping conditions
+     * Organizes the given list of items in (hierarchy of) groups based on the given grouping conditions.
+     * The items are iterated only once, each one being routed down to the leaf group identified by its values on all the conditions.
      * @param iterable The items to be grouped
      * @param conditions The conditions that define how the items have to be grouped
      * @return The items grouped by the given conditions
      */
 	public static <T> Group<T> group(Iterable<T> iterable, GroupCondition<?>... conditions) {
-		GroupCondition<?> condition = conditions[0];
-		GroupImpl<T> group = new GroupImpl<T>(condition);
+		GroupImpl<T> group = new GroupImpl<T>(conditions);
 		for (T item : iterable)	{ group.addItem(item); }
+		group.sortGroups();
+		return group;
+	}
 
-		if (conditions.length > 1) {
-			GroupCondition<?>[] newConditions = new GroupCondition<?>[conditions.length - 1];
-			System.arraycopy(conditions, 1, newConditions, 0, newConditions.length);
-			for (GroupItem<T> groupItem : group) { groupItem.setChildren((GroupImpl<T>)group(groupItem, newConditions)); }
-		}
+    /**
+     * Organizes the given list of items in (hierarchy of) groups based on the given grouping conditions, splitting them
+     * in chunks grouped in parallel on the default ForkJoinPool of lambdaj and then merged.
+     * The groups are the same, in the same order, of the ones built by the {@link Groups#group(Iterable, GroupCondition[])} method,
+     * but the conditions are evaluated concurrently, so they must be thread safe.
+     * @param iterable The items to be grouped
+     * @param conditions The conditions that define how the items have to be grouped
+     * @return The items grouped by the given conditions
+     */
+	public static <T> Group<T> parallelGroup(Iterable<T> iterable, GroupCondition<?>... conditions) {
+		return parallelGroup(ParallelAggregation.getDefaultPool(), iterable, conditions);
+	}
 
-        condition.sortGroup(group);
-		return group;
+    /**
+     * Organizes the given list of items in (hierarchy of) groups based on the given grouping conditions, splitting them
+     * in chunks grouped in parallel on the given ForkJoinPool and then merged.
+     * The groups are the same, in the same order, of the ones built by the {@link Groups#group(Iterable, GroupCondition[])} method,
+     * but the conditions are evaluated concurrently, so they must be thread safe.
+     * @param pool The pool on which the chunks are grouped
+     * @param iterable The items to be grouped
+     * @param conditions The conditions that define how the items have to be grouped
+     * @return The items grouped by the given conditions
+     */
+	public static <T> Group<T> parallelGroup(ForkJoinPool pool, Iterable<T> iterable, GroupCondition<?>... conditions) {
+		return ParallelGrouping.group(pool, iterable, conditions);
 	}
+
+	// ////////////////////////////////////////////////////////////////////////
+	// /// Grouped aggregation
+	// ////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Computes the given aggregates on the items having the same value on the given condition in a single pass,
+     * keeping only the partial aggregates of each group instead of the grouped items. For example:
+     * <code>aggregate(sales, by(on(Sale.class).getBuyer()), sumOf(on(Sale.class).getCost()), count())</code>
+     * @param iterable The items to be grouped and aggregated
+     * @param condition The condition that defines how the items have to be grouped
+     * @param aggregates The aggregates to be computed on the items of each group
+     * @return The aggregated groups indexed by their keys, in the order in which the keys have been met
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> Map<Object, AggregatedGroup> aggregate(Iterable<T> iterable, GroupCondition<?> condition, GroupAggregate<?>... aggregates) {
+        GroupAggregate<Object>[] groupAggregates = (GroupAggregate<Object>[])aggregates;
+        Map<Object, AggregatedGroup> groups = new LinkedHashMap<Object, AggregatedGroup>();
+        for (T item : iterable) {
+            Object key = condition.getGroupValue(item);
+            AggregatedGroup group = groups.get(key);
+            if (group == null) {
+                group = new AggregatedGroup(key, groupAggregates);
+                groups.put(key, group);
+            }
+            group.accumulate(item);
+        }
+        for (AggregatedGroup group : groups.values()) { group.complete(); }
+        return groups;
+    }
+
+    /**
+     * Creates an aggregate summing the values of the given argument on the items of each group
+     * @param argument The argument defined using the {@link ch.lambdaj.Lambda#on(Class)} method whose values have to be summed
+     * @return A GroupAggregate named sum(property) that can be used through the {@link Groups#aggregate(Iterable, GroupCondition, GroupAggregate[])} method
+     */
+    public static <A> GroupAggregate<Number> sumOf(A argument) {
+        return aggregation("sum", new Sum(), actualArgument(argument));
+    }
+
+    /**
+     * Creates an aggregate averaging the values of the given argument on the items of each group
+     * @param argument The argument defined using the {@link ch.lambdaj.Lambda#on(Class)} method whose values have to be averaged
+     * @return A GroupAggregate named avg(property) that can be used through the {@link Groups#aggregate(Iterable, GroupCondition, GroupAggregate[])} method
+     */
+    public static <A> GroupAggregate<Avg.Accumulation> avgOf(A argument) {
+        return aggregation("avg", new Avg(), actualArgument(argument));
+    }
+
+    /**
+     * Creates an aggregate finding the minimum value of the given argument on the items of each group
+     * @param argument The argument defined using the {@link ch.lambdaj.Lambda#on(Class)} method whose minimum has to be found
+     * @return A GroupAggregate named min(property) that can be used through the {@link Groups#aggregate(Iterable, GroupCondition, GroupAggregate[])} method
+     */
+    public static <A> GroupAggregate<?> minOf(A argument) {
+        return aggregation("min", new Min<Object>(), actualArgument(argument));
+    }
+
+    /**
+     * Creates an aggregate finding the maximum value of the given argument on the items of each group
+     * @param argument The argument defined using the {@link ch.lambdaj.Lambda#on(Class)} method whose maximum has to be found
+     * @return A GroupAggregate named max(property) that can be used through the {@link Groups#aggregate(Iterable, GroupCondition, GroupAggregate[])} method
+     */
+    public static <A> GroupAggregate<?> maxOf(A argument) {
+        return aggregation("max", new Max<Object>(), actualArgument(argument));
+    }
+
+    /**
+     * Creates an aggregate counting the items of each group
+     * @return A GroupAggregate named count that can be used through the {@link Groups#aggregate(Iterable, GroupCondition, GroupAggregate[])} method
+     */
+    public static GroupAggregate<Count.Counter> count() {
+        return new GroupAggregate<Count.Counter>(new Count(), null, "count");
+    }
+
+    /**
+     * Creates an aggregate of the values of the given argument on the items of each group through the given aggregator
+     * @param aggregator The aggregator used to aggregate the values of the argument
+     * @param argument The argument defined using the {@link ch.lambdaj.Lambda#on(Class)} method whose values have to be aggregated
+     * @return A GroupAggregate named as the property of the argument that can be used through the {@link Groups#aggregate(Iterable, GroupCondition, GroupAggregate[])} method
+     */
+    public static <A> GroupAggregate<A> aggregation(CombinableAggregator<?, A> aggregator, Object argument) {
+        Argument<?> actualArgument = actualArgument(argument);
+        return new GroupAggregate<A>(aggregator, actualArgument, actualArgument.getInkvokedPropertyName());
+    }
+
+    private static <A> GroupAggregate<A> aggregation(String function, CombinableAggregator<?, A> aggregator, Argument<?> argument) {
+        return new GroupAggregate<A>(aggregator, argument, function + "(" + argument.getInkvokedPropertyName() + ")");
+    }
 }
@@ -13,16 +13,21 @@ import java.util.*;
 class LeafGroup<T> implements Group<T> {
 
 	private final List<T> list;
-	private final Map<String, Object> headMap;
+	private final GroupNode<T> node;
+	private Map<String, String> headMap;
     private final Object key;
 	
-	@SuppressWarnings("unchecked")
-	LeafGroup(GroupItem<T> groupItem, String childrenNodeName) {
-        key = groupItem.getGroupKey();
-		headMap = new TreeMap<String, Object>(groupItem);
-		list = (List<T>)headMap.remove(childrenNodeName);
+	LeafGroup(GroupNode<T> node) {
+        this.node = node;
+        key = node.getGroupKey();
+		list = node.asList();
 	}
 
+    private Map<String, String> getHeadMap() {
+        if (headMap == null) headMap = node.getHeads();
+        return headMap;
+    }
+
     /**
      * Returns the key of this group
      */
@@ -114,14 +119,14 @@ class LeafGroup<T> implements Group<T> {
      * @param key The key of the request tag value
      */
 	public String getHeadValue(String key) {
-		Object value = headMap.get(key);
-		return value == null ? "" : value.toString();
+		String value = getHeadMap().get(key);
+		return value == null ? "" : value;
 	}
 
     /**
      * Returns the set of headers used to tag this group
      */
 	public Set<String> getHeads() {
-		return headMap.keySet();
+		return getHeadMap().keySet();
 	}
 }
@@ -0,0 +1,65 @@
+// Modified or written by Lambdascale SRL for inclusion with lambdaj.
+// Copyright (c) 2009-2010 Mario Fusco.
+// Licensed under the Apache License, Version 2.0 (the "License")
+
+package ch.lambdaj.group;
+
+import static ch.lambdaj.function.aggregate.ParallelAggregation.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Groups the items of a list by splitting it in chunks grouped in parallel on a ForkJoinPool and then merging
+ * the partial groups of contiguous chunks.
+ * @author Mario Fusco
+ */
+final class ParallelGrouping {
+
+    private ParallelGrouping() { }
+
+    @SuppressWarnings("unchecked")
+    static <T> GroupImpl<T> group(ForkJoinPool pool, Iterable<T> iterable, GroupCondition<?>... conditions) {
+        List<T> items = (List<T>)toRandomAccessList(iterable);
+        int chunkSize = getChunkSize(pool, items.size());
+        GroupImpl<T> group = items.size() <= chunkSize ?
+                groupChunk(items, conditions) : pool.invoke(new GroupingTask<T>(items, 0, items.size(), chunkSize, conditions));
+        group.sortGroups();
+        return group;
+    }
+
+    private static <T> GroupImpl<T> groupChunk(List<T> items, GroupCondition<?>[] conditions) {
+        GroupImpl<T> group = new GroupImpl<T>(conditions);
+        for (T item : items) { group.addItem(item); }
+        return group;
+    }
+
+    private static final class GroupingTask<T> extends RecursiveTask<GroupImpl<T>> {
+
+        private final List<T> items;
+        private final int from;
+        private final int to;
+        private final int chunkSize;
+        private final GroupCondition<?>[] conditions;
+
+        private GroupingTask(List<T> items, int from, int to, int chunkSize, GroupCondition<?>[] conditions) {
+            this.items = items;
+            this.from = from;
+            this.to = to;
+            this.chunkSize = chunkSize;
+            this.conditions = conditions;
+        }
+
+        @Override
+        protected GroupImpl<T> compute() {
+            if (to - from <= chunkSize) return groupChunk(items.subList(from, to), conditions);
+            int middle = (from + to) >>> 1;
+            GroupingTask<T> firstHalf = new GroupingTask<T>(items, from, middle, chunkSize, conditions);
+            firstHalf.fork();
+            GroupImpl<T> second = new GroupingTask<T>(items, middle, to, chunkSize, conditions).compute();
+            GroupImpl<T> first = firstHalf.join();
+            first.merge(second);
+            return first;
+        }
+    }
+}
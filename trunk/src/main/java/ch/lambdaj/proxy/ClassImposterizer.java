@@ -38,9 +38,12 @@ DAMAGE.
 
 package ch.lambdaj.proxy;
 
+import java.lang.ref.*;
 import java.lang.reflect.*;
 import java.util.*;
+import java.util.concurrent.*;
 
+import ch.lambdaj.util.*;
 import net.sf.cglib.core.*;
 import net.sf.cglib.proxy.*;
 
@@ -49,6 +52,8 @@ import org.objenesis.*;
 /**
  * Thanks to jMock guys for this handy class that wraps all the cglib magic.
  * In particular it workarounds a cglib limitation by allowing to proxy a class even if the misses a no args constructor. 
+ * The generated proxy classes are cached by proxied class and implemented interfaces, so each new proxy only requires
+ * to instantiate the cached class through Objenesis and to set its callbacks.
  * 
  * @author Mario Fusco
  * @author Sebastian Jancke
@@ -95,15 +100,101 @@ final class ClassImposterizer  {
         }
     };
     
+    private final ConcurrentWeakHashMap<Class<?>, ConcurrentMap<InterfacesKey, WeakReference<Class<?>>>> proxyClasses =
+            new ConcurrentWeakHashMap<Class<?>, ConcurrentMap<InterfacesKey, WeakReference<Class<?>>>>();
+
     <T> T imposterise(Callback callback, Class<T> mockedType, Class<?>... ancillaryTypes) {
-        setConstructorsAccessible(mockedType, true);
-        Class<?> proxyClass = createProxyClass(mockedType, ancillaryTypes);
+        Class<?> proxyClass = getProxyClass(mockedType, ancillaryTypes);
         return mockedType.cast(createProxy(proxyClass, callback));
     }
+
+    private Class<?> getProxyClass(Class<?> mockedType, Class<?>... interfaces) {
+        ConcurrentMap<InterfacesKey, WeakReference<Class<?>>> proxyClassesByInterfaces = proxyClasses.get(mockedType);
+        if (proxyClassesByInterfaces == null) {
+            proxyClassesByInterfaces = new ConcurrentHashMap<InterfacesKey, WeakReference<Class<?>>>();
+            ConcurrentMap<InterfacesKey, WeakReference<Class<?>>> existing = proxyClasses.putIfAbsent(mockedType, proxyClassesByInterfaces);
+            if (existing != null) proxyClassesByInterfaces = existing;
+        }
+        InterfacesKey interfacesKey = new InterfacesKey(interfaces);
+        WeakReference<Class<?>> proxyClassRef = proxyClassesByInterfaces.get(interfacesKey);
+        Class<?> proxyClass = proxyClassRef == null ? null : proxyClassRef.get();
+        if (proxyClass == null) {
+            setConstructorsAccessible(mockedType, true);
+            proxyClass = createProxyClass(mockedType, interfaces);
+            purgeUnloadedClasses(proxyClassesByInterfaces);
+            proxyClassesByInterfaces.put(interfacesKey, new WeakReference<Class<?>>(proxyClass));
+        }
+        return proxyClass;
+    }
+
+    private void purgeUnloadedClasses(ConcurrentMap<InterfacesKey, WeakReference<Class<?>>> proxyClassesByInterfaces) {
+        for (Iterator<Map.Entry<InterfacesKey, WeakReference<Class<?>>>> i = proxyClassesByInterfaces.entrySet().iterator(); i.hasNext();) {
+            Map.Entry<InterfacesKey, WeakReference<Class<?>>> entry = i.next();
+            if (entry.getKey().isUnloaded() || entry.getValue().get() == null) i.remove();
+        }
+    }
+
+    /**
+     * Identifies a set of implemented interfaces by the identity of their classes, so two interfaces having the same
+     * name but loaded by different classloaders don't share the same proxy class. The interfaces are weakly referenced
+     * in order to not prevent their unloading.
+     */
+    private static final class InterfacesKey {
+
+        private final WeakReference<Class<?>>[] interfaces;
+        private final int hashCode;
+
+        @SuppressWarnings("unchecked")
+        private InterfacesKey(Class<?>... interfaces) {
+            int length = interfaces == null ? 0 : interfaces.length;
+            this.interfaces = new WeakReference[length];
+            int hash = 1;
+            for (int i = 0; i < length; i++) {
+                this.interfaces[i] = new WeakReference<Class<?>>(interfaces[i]);
+                hash = 31 * hash + System.identityHashCode(interfaces[i]);
+            }
+            hashCode = hash;
+        }
+
+        private boolean isUnloaded() {
+            for (WeakReference<Class<?>> i : interfaces) {
+                if (i.get() == null) return true;
+            }
+            return false;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) return true;
+            if (!(obj instanceof InterfacesKey)) return false;
+            WeakReference<Class<?>>[] other = ((InterfacesKey)obj).interfaces;
+            if (other.length != interfaces.length) return false;
+            for (int i = 0; i < interfaces.length; i++) {
+                Class<?> clazz = interfaces[i].get();
+                if (clazz == null || clazz != other[i].get()) return false;
+            }
+            return true;
+        }
+    }
     
     private void setConstructorsAccessible(Class<?> mockedType, boolean accessible) {
         for (Constructor<?> constructor : mockedType.getDeclaredConstructors()) {
-            constructor.setAccessible(accessible);
+            try {
+                constructor.setAccessible(accessible);
+            } catch (RuntimeException e) {
+                // the constructors of classes in modules not open to lambdaj cannot be made accessible
+            }
         }
     }
     
@@ -0,0 +1,81 @@
+// Modified or written by Lambdascale SRL for inclusion with lambdaj.
+// Copyright (c) 2009-2010 Mario Fusco.
+// Licensed under the Apache License, Version 2.0 (the "License")
+
+package ch.lambdaj.proxy;
+
+import net.sf.cglib.reflect.*;
+
+import java.lang.reflect.*;
+import java.util.concurrent.*;
+
+/**
+ * Invokes a method on the objects wrapped by a proxy. When possible the invocation is performed through a cglib
+ * FastClass generated for the method's declaring class, that dispatches it with a direct virtual call,
+ * otherwise it falls back to plain reflection.
+ * The invokers are cached in a ClassValue of the method's declaring class, so they don't prevent it from being
+ * unloaded even if they strongly reference it through the Method or the FastClass.
+ * @author Mario Fusco
+ */
+abstract class MethodInvoker {
+
+    private static final ClassValue<ConcurrentMap<Method, MethodInvoker>> INVOKERS = new ClassValue<ConcurrentMap<Method, MethodInvoker>>() {
+        @Override
+        protected ConcurrentMap<Method, MethodInvoker> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<Method, MethodInvoker>();
+        }
+    };
+
+    static MethodInvoker getInvoker(Method method) {
+        ConcurrentMap<Method, MethodInvoker> invokers = INVOKERS.get(method.getDeclaringClass());
+        MethodInvoker invoker = invokers.get(method);
+        if (invoker == null) {
+            invoker = createInvoker(method);
+            MethodInvoker existing = invokers.putIfAbsent(method, invoker);
+            if (existing != null) invoker = existing;
+        }
+        return invoker;
+    }
+
+    private static MethodInvoker createInvoker(Method method) {
+        if (Modifier.isPublic(method.getModifiers()) && Modifier.isPublic(method.getDeclaringClass().getModifiers())) {
+            try {
+                return new FastMethodInvoker(FastClass.create(method.getDeclaringClass()).getMethod(method));
+            } catch (RuntimeException e) {
+                // fall back to reflection
+            }
+        }
+        return new ReflectiveMethodInvoker(method);
+    }
+
+    abstract Object invoke(Object target, Object[] args) throws InvocationTargetException;
+
+    private static final class FastMethodInvoker extends MethodInvoker {
+        private final FastMethod fastMethod;
+
+        private FastMethodInvoker(FastMethod fastMethod) {
+            this.fastMethod = fastMethod;
+        }
+
+        Object invoke(Object target, Object[] args) throws InvocationTargetException {
+            return fastMethod.invoke(target, args);
+        }
+    }
+
+    private static final class ReflectiveMethodInvoker extends MethodInvoker {
+        private final Method method;
+
+        private ReflectiveMethodInvoker(Method method) {
+            this.method = method;
+            method.setAccessible(true);
+        }
+
+        Object invoke(Object target, Object[] args) throws InvocationTargetException {
+            try {
+                return method.invoke(target, args);
+            } catch (IllegalAccessException e) {
+                throw new RuntimeException(e);
+            }
+        }
+    }
+}
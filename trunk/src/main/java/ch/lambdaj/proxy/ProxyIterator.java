@@ -12,24 +12,35 @@ import java.util.*;
 
 /**
  * Proxies a list of objects in order to seamlessly iterate on them by exposing the API of a single object.
+ * A lazy ProxyIterator doesn't materialize the results of the invocations of the methods returning an object, but
+ * returns a new lazy ProxyIterator that invokes the method on each item only when its results are actually iterated.
+ * In this way a chain of invocations like <code>lazyForEach(persons).getAddress().getCity()</code> never keeps in
+ * memory more than one item for each step of the chain. Note that all the proxies in a lazy chain share the iterator
+ * on the original items, so the results of only one of them can be iterated at a time.
  * @author Mario Fusco
- * @author Mattias Jiderhamn, adding ability to disable or enable
+ * @author Mattias Jiderhamn
  */
 public class ProxyIterator<T> extends InvocationInterceptor implements Iterable<T> {
 
 	private final ResettableIterator<? extends T> proxiedIterator;
+    private final boolean lazy;
 
     /**
-     * Set to true (default) the interceptor will work on the proxiedIterator, if set to false it will ignore any method invocations.
+     * Creates a proxy that wraps the given Iterator in order to seamlessly iterate on them by exposing the API of a single object
+     * @param proxiedIterator The Iterator to be proxied
      */
-    protected boolean enabled = true;
+	protected ProxyIterator(ResettableIterator<? extends T> proxiedIterator) {
+        this(proxiedIterator, false);
+	}
 
     /**
      * Creates a proxy that wraps the given Iterator in order to seamlessly iterate on them by exposing the API of a single object
      * @param proxiedIterator The Iterator to be proxied
+     * @param lazy If true the invocations of methods returning an object are lazily evaluated on the proxied items
      */
-	protected ProxyIterator(ResettableIterator<? extends T> proxiedIterator) {
+	protected ProxyIterator(ResettableIterator<? extends T> proxiedIterator, boolean lazy) {
         this.proxiedIterator = proxiedIterator;
+        this.lazy = lazy;
 	}
 
     /**
@@ -37,10 +48,24 @@ public class ProxyIterator<T> extends InvocationInterceptor implements Iterable<
      */
     public Object invoke(Object obj, Method method, Object[] args) {
 		if (method.getName().equals("iterator")) return iterator();
-        if (enabled) return createProxyIterator(iterateOnValues(method, args), (Class<Object>)method.getReturnType());
-        return null; 
+        Class<?> returnType = method.getReturnType();
+        if (returnType.isPrimitive()) {
+            // the values returned by a void method or a primitive one cannot be proxied: just invoke it
+            invokeOnValues(method, args);
+            return null;
+        }
+        if (lazy) return createLazyProxyIterator(lazilyIterateOnValues(method, args), (Class<Object>)returnType);
+        return createProxyIterator(iterateOnValues(method, args), (Class<Object>)returnType);
 	}
 
+    private void invokeOnValues(Method method, Object[] args) {
+        MethodInvoker invoker = MethodInvoker.getInvoker(method);
+        proxiedIterator.reset();
+        while (proxiedIterator.hasNext()) {
+            invoke(invoker, proxiedIterator.next(), args);
+        }
+    }
+
     /**
      * Invokes the given method with the given arguments on all the object in the iterator wrapped by this proxy
      * @param method The method to be invoked
@@ -49,28 +74,77 @@ public class ProxyIterator<T> extends InvocationInterceptor implements Iterable<
      */
 	protected ResettableIterator<Object> iterateOnValues(Method method, Object[] args) {
         if (method.getName().equals("finalize")) return null;
-        method.setAccessible(true);
+        MethodInvoker invoker = MethodInvoker.getInvoker(method);
         proxiedIterator.reset();
-        List<Object> list = new LinkedList<Object>();
+        int size = proxiedIterator.sizeHint();
+        if (size < 0) {
+            List<Object> list = new ArrayList<Object>();
+            while (proxiedIterator.hasNext()) list.add(invoke(invoker, proxiedIterator.next(), args));
+            return new ResettableIteratorOnIterable<Object>(list);
+        }
+        // the size is only a hint: the iteration can return more or less items if the proxied collection changed
+        Object[] values = new Object[size];
+        int count = 0;
         while (proxiedIterator.hasNext()) {
-            try {
-                list.add(method.invoke(proxiedIterator.next(), args));
-            } catch (Exception e) {
-                Throwable cause = e.getCause();
-                if (cause != null) {
-                    if (cause instanceof RuntimeException) {
-                        throw (RuntimeException)cause;
-                    } else {
-                        throw new RuntimeException(cause);
-                    }
-                } else {
-                    throw new RuntimeException(e);
-                }
-            }
+            if (count == values.length) values = Arrays.copyOf(values, Math.max(8, count * 2));
+            values[count++] = invoke(invoker, proxiedIterator.next(), args);
         }
-		return new ResettableIteratorOnIterable(list);
+		return new ResettableIteratorOnArray<Object>(count == values.length ? values : Arrays.copyOf(values, count));
 	}
 
+    /**
+     * Returns an Iterator that invokes the given method with the given arguments on the objects in the iterator wrapped by this proxy
+     * only when they are iterated. Unlike {@link ProxyIterator#iterateOnValues(Method, Object[])} it doesn't store
+     * the results of the invocations, so its items are calculated again after each reset.
+     * @param method The method to be invoked
+     * @param args The arguments used to invoke the given method
+     * @return An Iterator over the results on all the invoctions of the given method
+     */
+    protected ResettableIterator<Object> lazilyIterateOnValues(Method method, Object[] args) {
+        if (method.getName().equals("finalize")) return null;
+        return new InvokingIterator(proxiedIterator, MethodInvoker.getInvoker(method), args);
+    }
+
+    private static final class InvokingIterator extends ResettableIterator<Object> {
+        private final ResettableIterator<?> iterator;
+        private final MethodInvoker invoker;
+        private final Object[] args;
+
+        private InvokingIterator(ResettableIterator<?> iterator, MethodInvoker invoker, Object[] args) {
+            this.iterator = iterator;
+            this.invoker = invoker;
+            this.args = args;
+            iterator.reset();
+        }
+
+        public void reset() {
+            iterator.reset();
+        }
+
+        @Override
+        public int sizeHint() {
+            return iterator.sizeHint();
+        }
+
+        public boolean hasNext() {
+            return iterator.hasNext();
+        }
+
+        public Object next() {
+            return invoke(invoker, iterator.next(), args);
+        }
+    }
+
+    private static Object invoke(MethodInvoker invoker, Object target, Object[] args) {
+        try {
+            return invoker.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) throw (RuntimeException)cause;
+            throw new RuntimeException(cause);
+        }
+    }
+
     /**
      * Creates a ProxyIterator of the given class that wraps the given Iterator
      * @param proxiedIterator The Iterator to be proxied
@@ -93,6 +167,28 @@ public class ProxyIterator<T> extends InvocationInterceptor implements Iterable<
         return proxy;
     }
 
+    /**
+     * Creates a lazy ProxyIterator of the given class that wraps the given Iterator
+     * @param proxiedIterator The Iterator to be proxied
+     * @param clazz The class dinamically implemented by the newly created proxy
+     * @return The newly created proxy
+     */
+	public static <T> T createLazyProxyIterator(ResettableIterator<? extends T> proxiedIterator, Class<T> clazz) {
+		return createIterableProxy(new ProxyIterator<T>(proxiedIterator, true), clazz);
+	}
+
+    /**
+     * Creates a lazy ProxyIterator of the same class of the given item that wraps the given Iterator
+     * @param proxiedIterator The Iterator to be proxied
+     * @param firstItem An instance of the class dinamically implemented by the newly created proxy
+     * @return The newly created proxy
+     */
+    public static <T> T createLazyProxyIterator(ResettableIterator<? extends T> proxiedIterator, T firstItem) {
+        T proxy = createLazyProxyIterator(proxiedIterator, (Class<T>)firstItem.getClass());
+        proxiedIterator.reset();
+        return proxy;
+    }
+
     /**
      * {@inheritDoc}
      */
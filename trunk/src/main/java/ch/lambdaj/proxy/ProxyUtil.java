@@ -5,8 +5,7 @@
 package ch.lambdaj.proxy;
 
 
-import net.sf.cglib.proxy.Enhancer;
-import net.sf.cglib.proxy.MethodInterceptor;
+import net.sf.cglib.core.CodeGenerationException;
 
 import java.lang.reflect.*;
 
@@ -34,7 +33,8 @@ public final class ProxyUtil {
     }
 
     /**
-     * Creates a dynamic proxy
+     * Creates a dynamic proxy. The proxy classes are generated only once for each combination of proxied class and
+     * implemented interfaces and the proxies are instantiated without invoking any constructor of the proxied class.
      * @param interceptor The interceptor that manages the invocations to the created proxy
      * @param clazz The class to be proxied
      * @param failSafe If true return null if it is not possible to proxy the request class, otherwise throws an UnproxableClassException
@@ -43,16 +43,14 @@ public final class ProxyUtil {
      */
     public static <T> T createProxy(InvocationInterceptor interceptor, Class<T> clazz, boolean failSafe, Class<?> ... implementedInterface) {
         if (clazz.isInterface()) return (T)createNativeJavaProxy(clazz.getClassLoader(), interceptor, concatClasses(new Class<?>[] { clazz }, implementedInterface));
-        final ProxyIterator proxyIterator = (interceptor instanceof ProxyIterator) ? (ProxyIterator)interceptor : null;
+        if (Proxy.isProxyClass(clazz)) return (T)createNativeJavaProxy(clazz.getClassLoader(), interceptor, concatClasses(implementedInterface, clazz.getInterfaces()));
+        if (clazz.isPrimitive() || Modifier.isFinal(clazz.getModifiers())) return manageUnproxableClass(clazz, failSafe);
         try {
-            if (proxyIterator != null) proxyIterator.enabled = false;
-            return (T)createEnhancer(interceptor, clazz, implementedInterface).create();
+            return ClassImposterizer.INSTANCE.imposterise(interceptor, clazz, implementedInterface);
+        } catch (CodeGenerationException cge) {
+            return manageUnproxableClass(clazz, failSafe);
         } catch (IllegalArgumentException iae) {
-            if (Proxy.isProxyClass(clazz)) return (T)createNativeJavaProxy(clazz.getClassLoader(), interceptor, concatClasses(implementedInterface, clazz.getInterfaces()));
-            if (isProxable(clazz)) return ClassImposterizer.INSTANCE.imposterise(interceptor, clazz, implementedInterface);
             return manageUnproxableClass(clazz, failSafe);
-        } finally {
-            if (proxyIterator != null) proxyIterator.enabled = true;
         }
     }
 
@@ -85,14 +83,6 @@ public final class ProxyUtil {
     // /// Private
     // ////////////////////////////////////////////////////////////////////////
     
-    private static Enhancer createEnhancer(MethodInterceptor interceptor, Class<?> clazz, Class<?> ... interfaces) {
-        Enhancer enhancer = new Enhancer();
-        enhancer.setCallback(interceptor);
-        enhancer.setSuperclass(clazz);
-        if (interfaces != null && interfaces.length > 0) enhancer.setInterfaces(interfaces);
-        return enhancer;
-    }
-
     private static Object createNativeJavaProxy(ClassLoader classLoader, InvocationHandler interceptor, Class<?> ... interfaces) {
         return Proxy.newProxyInstance(classLoader, interfaces, interceptor);
     }
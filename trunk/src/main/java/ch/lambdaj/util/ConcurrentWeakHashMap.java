@@ -0,0 +1,125 @@
+// Modified or written by Lambdascale SRL for inclusion with lambdaj.
+// Copyright (c) 2009-2010 Mario Fusco.
+// Licensed under the Apache License, Version 2.0 (the "License")
+
+package ch.lambdaj.util;
+
+import java.lang.ref.*;
+import java.util.concurrent.*;
+
+/**
+ * A thread safe map with weakly referenced keys that, as the java.util.WeakHashMap, compares its keys through their
+ * equals method and automatically removes an entry when its key is no longer in ordinary use.
+ * Lookups are lock-free and updates only lock the segment of the underlying ConcurrentHashMap they affect.
+ * Null keys are not supported.
+ * @author Mario Fusco
+ */
+public final class ConcurrentWeakHashMap<K, V> {
+
+    private final ConcurrentMap<Object, V> map = new ConcurrentHashMap<Object, V>();
+    private final ReferenceQueue<K> queue = new ReferenceQueue<K>();
+
+    /**
+     * Returns the value to which the given key is mapped
+     * @param key The key whose associated value is to be returned
+     * @return The value to which the given key is mapped or null if this map contains no mapping for the key
+     */
+    public V get(K key) {
+        if (key == null) return null;
+        purgeCollectedKeys();
+        return map.get(new LookupKey(key));
+    }
+
+    /**
+     * Associates the given value with the given key in this map
+     * @param key The key with which the given value is to be associated
+     * @param value The value to be associated with the given key
+     * @return The value previously associated with the key or null if there wasn't any
+     */
+    public V put(K key, V value) {
+        purgeCollectedKeys();
+        return map.put(new WeakKey<K>(key, queue), value);
+    }
+
+    /**
+     * Associates the given value with the given key in this map if the key is not already associated with any value
+     * @param key The key with which the given value is to be associated
+     * @param value The value to be associated with the given key
+     * @return The value already associated with the key or null if the given value has been associated with it
+     */
+    public V putIfAbsent(K key, V value) {
+        purgeCollectedKeys();
+        return map.putIfAbsent(new WeakKey<K>(key, queue), value);
+    }
+
+    /**
+     * Removes the mapping for the given key from this map if it is present
+     * @param key The key whose mapping is to be removed from the map
+     * @return The value previously associated with the key or null if there wasn't any
+     */
+    public V remove(K key) {
+        if (key == null) return null;
+        purgeCollectedKeys();
+        return map.remove(new LookupKey(key));
+    }
+
+    /**
+     * Returns the number of entries in this map. The result may include entries whose key has been
+     * garbage collected but that have not been removed yet
+     * @return The number of entries in this map
+     */
+    public int size() {
+        purgeCollectedKeys();
+        return map.size();
+    }
+
+    private void purgeCollectedKeys() {
+        for (Reference<? extends K> key = queue.poll(); key != null; key = queue.poll()) {
+            map.remove(key);
+        }
+    }
+
+    private static boolean referentsEqual(Object first, Object second) {
+        return first != null && (first == second || first.equals(second));
+    }
+
+    private static final class WeakKey<K> extends WeakReference<K> {
+        private final int hashCode;
+
+        private WeakKey(K key, ReferenceQueue<K> queue) {
+            super(key, queue);
+            hashCode = key.hashCode();
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+
+        @Override
+        public boolean equals(Object object) {
+            if (this == object) return true;
+            if (object instanceof LookupKey) return referentsEqual(get(), ((LookupKey)object).key);
+            return object instanceof WeakKey && referentsEqual(get(), ((WeakKey<?>)object).get());
+        }
+    }
+
+    private static final class LookupKey {
+        private final Object key;
+
+        private LookupKey(Object key) {
+            this.key = key;
+        }
+
+        @Override
+        public int hashCode() {
+            return key.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object object) {
+            if (object instanceof WeakKey) return referentsEqual(key, ((WeakKey<?>)object).get());
+            return object instanceof LookupKey && referentsEqual(key, ((LookupKey)object).key);
+        }
+    }
+}
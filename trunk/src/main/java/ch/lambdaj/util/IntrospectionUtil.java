@@ -6,6 +6,7 @@ package ch.lambdaj.util;
 
 import java.lang.reflect.*;
 import java.util.*;
+import java.util.concurrent.*;
 
 /**
  * This class consists exclusively of static methods that offer some introspection facilities.
@@ -15,6 +16,20 @@ public final class IntrospectionUtil {
 
 	private IntrospectionUtil() {}
 
+    private static final Object NO_ACCESSOR = new Object();
+
+    // the cached accessors strongly reference their classes, so they are stored in the classes themselves through
+    // a ClassValue in order to not prevent those classes from being unloaded
+    private static final ClassValue<ConcurrentMap<String, Object>> PROPERTY_ACCESSORS = new ClassCache<Object>();
+    private static final ClassValue<ConcurrentMap<String, PropertyPathAccessor>> PROPERTY_PATH_ACCESSORS = new ClassCache<PropertyPathAccessor>();
+
+    private static final class ClassCache<V> extends ClassValue<ConcurrentMap<String, V>> {
+        @Override
+        protected ConcurrentMap<String, V> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<String, V>();
+        }
+    }
+
     /**
      * Returns the bean compliant name of the property accessed by the given method
      * @param invokedMethod The method to be introspected
@@ -35,33 +50,82 @@ public final class IntrospectionUtil {
      */
 	public static Object getPropertyValue(Object bean, String propertyName) {
 		if (bean == null) return null;
-		int dotPos = propertyName.indexOf('.');
-		if (dotPos > 0) return getPropertyValue(getPropertyValue(bean, propertyName.substring(0, dotPos)), propertyName.substring(dotPos + 1));
-
-		String accessorName = propertyName.substring(0, 1).toUpperCase(Locale.getDefault()) + propertyName.substring(1);
-		try {
-			return bean.getClass().getMethod("get" + accessorName).invoke(bean, (Object[]) null);
-		} catch (Exception e) {
-			return getBooleanPropertyValue(bean, propertyName, accessorName);
-		}
-	}
-	
-	private static Object getBooleanPropertyValue(Object bean, String propertyName, String accessorName) {
-		try {
-			return bean.getClass().getMethod("is" + accessorName).invoke(bean, (Object[]) null);
-		} catch (Exception e) {
-			return getPlainPropertyValue(bean, propertyName);
-		}
-	}
-	
-	private static Object getPlainPropertyValue(Object bean, String propertyName) {
-		try {
-			return bean.getClass().getMethod(propertyName).invoke(bean, (Object[]) null);
-		} catch (Exception e) {
-			throw new IntrospectionException(e);
-		}
+        Object value = getPropertyPathAccessor(bean.getClass(), propertyName).getValue(bean, NO_ACCESSOR);
+        if (value == NO_ACCESSOR) throw new IntrospectionException("Unknown property " + propertyName + " on " + bean.getClass().getName());
+        return value;
 	}
 
+    /**
+     * Returns the value of the named, possibly dotted, property on the given bean, without throwing any exception
+     * when one of the properties in the path doesn't exist. As soon as a property in the path is null, null is returned.
+     * @param bean The bean to be introspected
+     * @param propertyName The name of the property, or a dot separated path of nested properties, to be introspected
+     * @param missingValue The value returned when a property in the path doesn't exist
+     * @return The value of the property or the missingValue if one of the properties in the path doesn't exist
+     */
+    public static Object getPropertyValueOrDefault(Object bean, String propertyName, Object missingValue) {
+        return bean == null ? null : getPropertyPathAccessor(bean.getClass(), propertyName).getValue(bean, missingValue);
+    }
+
+    static PropertyPathAccessor getPropertyPathAccessor(Class<?> clazz, String propertyName) {
+        ConcurrentMap<String, PropertyPathAccessor> accessors = PROPERTY_PATH_ACCESSORS.get(clazz);
+        PropertyPathAccessor accessor = accessors.get(propertyName);
+        if (accessor == null) {
+            accessor = new PropertyPathAccessor(clazz, propertyName);
+            PropertyPathAccessor existing = accessors.putIfAbsent(propertyName, accessor);
+            if (existing != null) accessor = existing;
+        }
+        return accessor;
+    }
+
+    /**
+     * Finds the accessor of the named property on the given class, looking in order for a getter, a boolean is-getter or
+     * a public no-args method with the same name of the property. The result of the lookup is cached for each class.
+     * @param clazz The class on which the accessor has to be found
+     * @param propertyName The name of the property
+     * @return The accessor of the property or null if the given class doesn't have it
+     */
+    public static Method findPropertyAccessor(Class<?> clazz, String propertyName) {
+        ConcurrentMap<String, Object> accessors = PROPERTY_ACCESSORS.get(clazz);
+        Object accessor = accessors.get(propertyName);
+        if (accessor == null) {
+            accessor = discoverPropertyAccessor(clazz, propertyName);
+            Object existing = accessors.putIfAbsent(propertyName, accessor);
+            if (existing != null) accessor = existing;
+        }
+        return accessor == NO_ACCESSOR ? null : (Method)accessor;
+    }
+
+    private static Object discoverPropertyAccessor(Class<?> clazz, String propertyName) {
+        String accessorName = propertyName.substring(0, 1).toUpperCase(Locale.getDefault()) + propertyName.substring(1);
+        Method getter = null, booleanGetter = null, plainAccessor = null;
+        for (Method method : clazz.getMethods()) {
+            if (method.getParameterTypes().length != 0 || method.isBridge()) continue;
+            String name = method.getName();
+            if (name.equals("get" + accessorName)) getter = method;
+            else if (name.equals("is" + accessorName)) booleanGetter = method;
+            else if (name.equals(propertyName)) plainAccessor = method;
+        }
+        Method accessor = getter != null ? getter : (booleanGetter != null ? booleanGetter : plainAccessor);
+        if (accessor == null) return NO_ACCESSOR;
+        try {
+            accessor.setAccessible(true);
+        } catch (RuntimeException e) {
+            // a public method of a public class can be invoked anyway
+        }
+        return accessor;
+    }
+
+    static Object invokeAccessor(Method accessor, Object bean) {
+        try {
+            return accessor.invoke(bean, (Object[]) null);
+        } catch (InvocationTargetException e) {
+            throw new IntrospectionException(e.getCause());
+        } catch (IllegalAccessException e) {
+            throw new IntrospectionException(e);
+        }
+    }
+
     /**
      * Finds the consructor of the given class that matches the given arguments
      * @param clazz The class for which a constructor should be found
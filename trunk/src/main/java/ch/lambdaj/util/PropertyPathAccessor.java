@@ -0,0 +1,82 @@
+// Modified or written by Lambdascale SRL for inclusion with lambdaj.
+// Copyright (c) 2009-2010 Mario Fusco.
+// Licensed under the Apache License, Version 2.0 (the "License")
+
+package ch.lambdaj.util;
+
+import ch.lambdaj.function.argument.*;
+
+import java.lang.reflect.*;
+import java.util.*;
+
+/**
+ * Reads the value of a dotted property path on the instances of a given class.
+ * The accessor of each property is looked up on the actual class of each intermediate value, that could be a subclass
+ * of the declared type of the former property defining a getter that the declared type doesn't have.
+ * For this reason the whole chain of accessors is looked up once and compiled in a single invoker only when
+ * the accessor of each nested property found on the declared type is the one any subclass would also choose,
+ * i.e. when it is a getX getter, that has the highest priority, or the declared type is final.
+ * Otherwise each accessor is looked up on the actual class of each intermediate value.
+ * @author Mario Fusco
+ */
+final class PropertyPathAccessor {
+
+    private final String[] propertyPath;
+    private final Invoker compiledAccessor;
+
+    PropertyPathAccessor(Class<?> rootClass, String propertyPath) {
+        this.propertyPath = propertyPath.split("\\.");
+        compiledAccessor = compile(rootClass, this.propertyPath);
+    }
+
+    private static Invoker compile(Class<?> rootClass, String[] propertyPath) {
+        Method[] accessors = new Method[propertyPath.length];
+        Class<?> propertyClass = rootClass;
+        for (int i = 0; i < propertyPath.length; i++) {
+            accessors[i] = IntrospectionUtil.findPropertyAccessor(propertyClass, propertyPath[i]);
+            if (accessors[i] == null || (i > 0 && !isResolvedOnAnySubclass(propertyClass, accessors[i], propertyPath[i]))) return null;
+            propertyClass = accessors[i].getReturnType();
+        }
+        try {
+            return ArgumentsFactory.compileInvocationChain(rootClass, accessors);
+        } catch (RuntimeException e) {
+            // the accessors cannot be compiled, so they will be looked up and invoked by reflection
+            return null;
+        }
+    }
+
+    private static boolean isResolvedOnAnySubclass(Class<?> declaredType, Method accessor, String propertyName) {
+        if (Modifier.isFinal(declaredType.getModifiers())) return true;
+        return accessor.getName().equals("get" + propertyName.substring(0, 1).toUpperCase(Locale.getDefault()) + propertyName.substring(1));
+    }
+
+    boolean isCompiled() {
+        return compiledAccessor != null;
+    }
+
+    /**
+     * Returns the value of the property path on the given bean
+     * @param bean The bean, an instance of the class for which this accessor has been created, to be introspected
+     * @param missingValue The value returned when a property in the path doesn't exist
+     * @return The value of the property path, null if one of the intermediate values is null, or the missingValue
+     * if one of the properties in the path doesn't exist
+     */
+    Object getValue(Object bean, Object missingValue) {
+        if (compiledAccessor != null) {
+            try {
+                return compiledAccessor.invokeOn(bean);
+            } catch (Exception e) {
+                throw new IntrospectionException(e.getCause() instanceof InvocationTargetException ? e.getCause().getCause() : e);
+            }
+        }
+
+        Object value = bean;
+        for (String propertyName : propertyPath) {
+            if (value == null) return null;
+            Method accessor = IntrospectionUtil.findPropertyAccessor(value.getClass(), propertyName);
+            if (accessor == null) return missingValue;
+            value = IntrospectionUtil.invokeAccessor(accessor, value);
+        }
+        return value;
+    }
+}
@@ -0,0 +1,54 @@
+// Modified or written by Lambdascale SRL for inclusion with lambdaj.
+// Copyright (c) 2009-2010 Mario Fusco.
+// Licensed under the Apache License, Version 2.0 (the "License")
+
+package ch.lambdaj.util.iterator;
+
+import java.util.*;
+
+/**
+ * Wraps an iterator returning at most a given number of its items.
+ * The wrapped iterator is never advanced after the last returned item.
+ * @author Mario Fusco
+ */
+public class LimitedIterator<T> implements Iterator<T> {
+
+    private final Iterator<T> iterator;
+    private final int maxSize;
+    private int returned = 0;
+
+    /**
+     * Creates an Iterator returning at most the given number of items of the wrapped one
+     * @param iterator The iterator to be wrapped
+     * @param maxSize The maximum number of items to be returned
+     */
+    public LimitedIterator(Iterator<T> iterator, int maxSize) {
+        if (maxSize < 0) throw new IllegalArgumentException("The maximum number of items cannot be negative: " + maxSize);
+        this.iterator = iterator;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public boolean hasNext() {
+        return returned < maxSize && iterator.hasNext();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public T next() {
+        if (returned >= maxSize) throw new NoSuchElementException();
+        T next = iterator.next();
+        returned++;
+        return next;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void remove() {
+        iterator.remove();
+    }
+}
@@ -19,6 +19,7 @@ public class MatchingIterator<T> implements Iterator<T> {
 	private final Matcher<?> matcher;
 
 	private T nextElement;
+    private boolean nextFound = false;
     private boolean nextAvailable = false;
 
     /**
@@ -33,9 +34,13 @@ public class MatchingIterator<T> implements Iterator<T> {
 
 	private void searchNext() {
 		nextElement = null;
-		while (iterator.hasNext() && nextElement == null) {
+		nextFound = false;
+		while (iterator.hasNext() && !nextFound) {
 			T n = iterator.next();
-			if (matcher.matches(n)) nextElement = n;
+			if (matcher.matches(n)) {
+				nextElement = n;
+				nextFound = true;
+			}
 		}
         nextAvailable = true;
 	}
@@ -45,7 +50,7 @@ public class MatchingIterator<T> implements Iterator<T> {
      */
 	public boolean hasNext() {
         if (!nextAvailable) searchNext();
-		return nextElement != null;
+		return nextFound;
 	}
 
     /**
@@ -17,6 +17,14 @@ public abstract class ResettableIterator<T> implements Iterator<T> {
      */
     public abstract void reset();
 
+    /**
+     * Returns the number of items over which this Iterator iterates if it is known in advance
+     * @return The number of items of this Iterator or -1 if it is unknown
+     */
+    public int sizeHint() {
+        return -1;
+    }
+
     /**
      * {@inheritDoc}
      */
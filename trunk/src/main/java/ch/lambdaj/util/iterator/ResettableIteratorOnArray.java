@@ -44,4 +44,12 @@ public class ResettableIteratorOnArray<T> extends ResettableIterator<T> {
     public void reset() {
         counter = 0;
     }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int sizeHint() {
+        return array.length;
+    }
 }
\ No newline at end of file
@@ -45,4 +45,12 @@ public class ResettableIteratorOnIterable<T> extends ResettableIterator<T> {
     public T next() {
         return iterator.next();
     }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int sizeHint() {
+        return iterable instanceof Collection ? ((Collection<T>)iterable).size() : -1;
+    }
 }
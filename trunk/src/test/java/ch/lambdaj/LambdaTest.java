@@ -60,6 +60,43 @@ public class LambdaTest {
         me.setBestFriend(null);
 	}
 	
+    @Test
+    public void testCapturedArgument() {
+        List<Person> people = asList(me, luca, biagio, celestino);
+        Argument<Integer> age = argument(on(Person.class).getAge());
+        Argument<String> firstName = argument(on(Person.class).getFirstName());
+
+        int totalAge = sum(people, age);
+        assertEquals(132, totalAge);
+        assertEquals(0, (int)sum(new ArrayList<Person>(), age));
+        assertEquals(33, (int)avg(people, age));
+        assertEquals(29, (int)min(people, age));
+        assertEquals(39, (int)max(people, age));
+        assertEquals(asList(35, 29, 39, 29), extract(people, age));
+        assertEquals(asList("Mario", "Luca", "Biagio", "Celestino"), collect(people, firstName));
+        assertEquals(2, (int)count(people, age).get(29));
+        assertSame(luca, index(people, firstName).get("Luca"));
+        assertEquals("Mario", extractIterator(people, firstName).next());
+    }
+
+    @Test
+    public void testLazyForEach() {
+        me.setBestFriend(biagio);
+        luca.setBestFriend(celestino);
+        List<Person> people = asList(me, luca);
+
+        Person bestFriends = lazyForEach(people).getBestFriend();
+        Person bestFriendsOfBestFriends = lazyForEach(people, Person.class).getBestFriend().getBestFriend();
+        luca.setBestFriend(sister);
+        biagio.setBestFriend(dad);
+        sister.setBestFriend(me);
+
+        assertEquals(asList(biagio, sister), collect(bestFriends));
+        assertEquals(asList(dad, me), collect(bestFriendsOfBestFriends));
+        lazyForEach(people).getBestFriend().setLastName("Bellone");
+        assertEquals("Bellone", sister.getLastName());
+    }
+
 	@Test
 	public void testForEach() {
 		List<Person> personInFamily = asList(new Person("Domenico"), new Person("Mario"), new Person("Irma"));
@@ -78,6 +115,25 @@ public class LambdaTest {
         }
     }
 
+    @Test
+    public void testForEachOnCollectionWithStaleSize() {
+        List<Person> people = asList(new Person("Domenico"), new Person("Mario"), new Person("Irma"));
+        for (Person person : people) person.setBestFriend(person);
+        assertEquals(people, collect(forEach(sizedAs(people, 2)).getBestFriend()));
+        assertEquals(people, collect(forEach(sizedAs(people, 5)).getBestFriend()));
+    }
+
+    private static <T> Collection<T> sizedAs(final Collection<T> items, final int size) {
+        return new AbstractCollection<T>() {
+            public Iterator<T> iterator() {
+                return items.iterator();
+            }
+            public int size() {
+                return size;
+            }
+        };
+    }
+
     @Test
     public void testForEachOnIterator() {
         List<Person> personInFamily = asList(new Person("Domenico"), new Person("Mario"), new Person("Irma"));
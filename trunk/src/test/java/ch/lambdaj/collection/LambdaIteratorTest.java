@@ -16,7 +16,7 @@ import java.util.*;
 import static java.util.Arrays.asList;
 
 import static junit.framework.Assert.*;
-import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.*;
 
 /**
  * @author Mario Fusco
@@ -122,4 +122,41 @@ public class LambdaIteratorTest {
         Iterator<String> nameIterator = iterator.extract(on(Person.class).getFirstName());
         assertEquals("Mario", nameIterator.next());
     }
+
+    @Test
+    public void testLazyLimitedPipeline() {
+        final List<Person> visited = new ArrayList<Person>();
+        Iterator<Person> source = new Iterator<Person>() {
+            private final Iterator<Person> people = meAndMyFriends.iterator();
+            public boolean hasNext() { return people.hasNext(); }
+            public Person next() {
+                Person person = people.next();
+                visited.add(person);
+                return person;
+            }
+            public void remove() { throw new UnsupportedOperationException(); }
+        };
+
+        Iterator<String> names = from(source).retain(having(on(Person.class).getAge(), greaterThan(30))).limit(1).extract(on(Person.class).getFirstName());
+        assertTrue(visited.isEmpty());
+        assertEquals("Mario", names.next());
+        assertFalse(names.hasNext());
+        assertEquals(asList(me), visited);
+    }
+
+    @Test
+    public void testPipelineOnIterable() {
+        assertEquals(64, (int)sum(from(meAndMyFriends).limit(2).extract(on(Person.class).getAge())));
+        assertEquals("Luca, Celestino", from(meAndMyFriends).retain(having(on(Person.class).getAge(), lessThan(30))).limit(5).extract(on(Person.class).getFirstName()).join());
+        assertFalse(from(meAndMyFriends).limit(0).hasNext());
+    }
+
+    @Test
+    public void testRetainNullItems() {
+        LambdaIterator<String> strings = from(asList("a", null, "b"));
+        LambdaIterator<String> iterator = strings.retain(nullValue());
+        assertTrue(iterator.hasNext());
+        assertNull(iterator.next());
+        assertFalse(iterator.hasNext());
+    }
 }
@@ -0,0 +1,58 @@
+// Modified or written by Lambdascale SRL for inclusion with lambdaj.
+// Copyright (c) 2009-2010 Mario Fusco.
+// Licensed under the Apache License, Version 2.0 (the "License")
+
+package ch.lambdaj.function.aggregate;
+
+import static java.util.Arrays.*;
+import static org.junit.Assert.*;
+
+import org.junit.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * @author Mario Fusco
+ */
+public class AvgTest {
+
+    private final Avg avg = new Avg();
+
+    @Test
+    public void testAvg() {
+        assertEquals(2, avg.aggregate(asList(1, 2, 3).iterator()));
+        assertEquals(2.5, avg.aggregate(asList(2.0, 3.0).iterator()));
+        assertEquals(1, avg.aggregate(asList(2, null).iterator()));
+        assertEquals(0, avg.aggregate(new ArrayList<Number>().iterator()));
+    }
+
+    @Test
+    public void testReuseSameInstance() {
+        List<Integer> numbers = asList(10, 20, 30);
+        assertEquals(20, avg.aggregate(numbers.iterator()));
+        assertEquals(20, avg.aggregate(numbers.iterator()));
+        assertEquals(20, avg.aggregate(numbers.iterator()));
+    }
+
+    @Test
+    public void testShareSameInstanceAmongThreads() throws Exception {
+        final List<Integer> numbers = new ArrayList<Integer>();
+        for (int i = 0; i <= 1000; i++) numbers.add(i);
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Number>> results = new ArrayList<Future<Number>>();
+            for (int i = 0; i < 50; i++) {
+                results.add(executor.submit(new Callable<Number>() {
+                    public Number call() {
+                        return avg.aggregate(numbers.iterator());
+                    }
+                }));
+            }
+            for (Future<Number> result : results) assertEquals(500, result.get());
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,103 @@
+// Modified or written by Lambdascale SRL for inclusion with lambdaj.
+// Copyright (c) 2009-2010 Mario Fusco.
+// Licensed under the Apache License, Version 2.0 (the "License")
+
+package ch.lambdaj.function.aggregate;
+
+import static ch.lambdaj.Lambda.*;
+import static org.junit.Assert.*;
+
+import ch.lambdaj.mock.*;
+import org.junit.*;
+
+import java.util.*;
+
+/**
+ * @author Mario Fusco
+ */
+public class ParallelAggregationTest {
+
+    private static final int SIZE = 20000;
+
+    private List<Integer> numbers;
+    private List<Person> people;
+
+    @Before
+    public void setUp() {
+        numbers = new ArrayList<Integer>();
+        people = new ArrayList<Person>();
+        for (int i = 0; i < SIZE; i++) {
+            numbers.add(i % 100);
+            people.add(new Person("Person" + i, i % 90));
+        }
+    }
+
+    @Test
+    public void testParallelSum() {
+        assertEquals(sum(numbers), parallelSum(numbers));
+        assertEquals(sum(numbers.toArray()), parallelSum(numbers.toArray()));
+        assertEquals(sum(new LinkedList<Integer>(numbers)), parallelSum(new LinkedList<Integer>(numbers)));
+        assertEquals(0.0, parallelSum(new ArrayList<Integer>()));
+    }
+
+    @Test
+    public void testParallelSumOnArgument() {
+        assertEquals(sum(people, on(Person.class).getAge()), parallelSum(people, on(Person.class).getAge()));
+        assertEquals(sum(people, on(Person.class).getIncome()), parallelSum(people, argument(on(Person.class).getIncome())), 0.001);
+        assertEquals(0, (int)parallelSum(new ArrayList<Person>(), on(Person.class).getAge()));
+    }
+
+    @Test
+    public void testParallelSumOfMixedTypesHasTheSequentialType() {
+        List<Number> mixed = new ArrayList<Number>();
+        for (int i = 0; i < SIZE; i++) {
+            mixed.add(i < SIZE / 2 ? (Number)Double.valueOf(i % 100) : (Number)Integer.valueOf(i % 100));
+        }
+        Number sequential = new Sum(0.0).aggregate(mixed.iterator());
+        assertTrue(sequential instanceof Integer);
+        assertEquals(sequential, parallelSum(mixed));
+    }
+
+    @Test
+    public void testParallelAvg() {
+        List<Integer> withNulls = new ArrayList<Integer>(numbers);
+        withNulls.set(10, null);
+        withNulls.set(SIZE - 10, null);
+        assertEquals(new Avg().aggregate(withNulls.iterator()), parallelAggregate(withNulls, new Avg()));
+        assertEquals(avg(people, on(Person.class).getIncome()), parallelAggregate(people, new Avg(), argument(on(Person.class).getIncome())).doubleValue(), 0.001);
+    }
+
+    @Test
+    public void testParallelMinAndMax() {
+        assertEquals(0, parallelAggregate(numbers, new Min()));
+        assertEquals(99, parallelAggregate(numbers, new Max()));
+        assertEquals(89, parallelAggregate(people, new Max(), argument(on(Person.class).getAge())));
+    }
+
+    @Test
+    public void testParallelMinAndMaxOnArgument() {
+        Person youngest = (Person)parallelAggregate(people, new MinOnArgument<Person, Integer>(on(Person.class).getAge()));
+        Person oldest = (Person)parallelAggregate(people, new MaxOnArgument<Person, Integer>(on(Person.class).getAge()));
+        assertSame(selectMin(people, on(Person.class).getAge()), youngest);
+        assertSame(selectMax(people, on(Person.class).getAge()), oldest);
+    }
+
+    @Test
+    public void testParallelConcatPreservesOrder() {
+        List<Object> strings = new ArrayList<Object>();
+        for (int i = 0; i < SIZE; i++) strings.add(i % 7 == 0 ? " " : i % 11 == 0 ? null : "s" + i);
+        assertEquals(new Concat("-").aggregate(strings.iterator()), parallelAggregate(strings, new Concat("-")));
+        assertEquals(join(people, ","), parallelAggregate(people, new Concat(",")));
+    }
+
+    @Test
+    public void testCombineEmptyChunks() {
+        Sum sum = new Sum();
+        assertEquals(3.5, sum.result(sum.combine(sum.accumulate(sum.identity(), 3.5), sum.identity())));
+        assertEquals(0, sum.result(sum.combine(sum.identity(), sum.identity())));
+        assertEquals(3.5, sum.result(sum.combine(sum.accumulate(sum.identity(), 1), sum.accumulate(sum.identity(), 2.5))));
+
+        Concat concat = new Concat();
+        assertEquals("a, b", concat.result(concat.combine(concat.combine(concat.accumulate(concat.identity(), "a"), concat.identity()), concat.accumulate(concat.identity(), "b"))));
+    }
+}
@@ -0,0 +1,104 @@
+// Modified or written by Lambdascale SRL for inclusion with lambdaj.
+// Copyright (c) 2009-2010 Mario Fusco.
+// Licensed under the Apache License, Version 2.0 (the "License")
+
+package ch.lambdaj.function.aggregate;
+
+import static ch.lambdaj.Lambda.*;
+import static java.util.Arrays.*;
+import static org.junit.Assert.*;
+
+import ch.lambdaj.function.argument.*;
+import ch.lambdaj.mock.*;
+import org.junit.*;
+
+import java.util.*;
+
+/**
+ * @author Mario Fusco
+ */
+public class PrimitiveAggregationTest {
+
+    private final Person mario = new Person("Mario", 35);
+    private final Person luca = new Person("Luca", 29);
+    private final Person biagio = new Person("Biagio", 39);
+    private final List<Person> people = asList(mario, luca, biagio);
+
+    @After
+    public void disableJitting() {
+        ArgumentsFactory.enableJitting(false);
+    }
+
+    @Test
+    public void testIsPrimitiveAggregable() {
+        assertTrue(PrimitiveAggregation.isPrimitiveAggregable(argument(on(Person.class).getAge())));
+        assertTrue(PrimitiveAggregation.isPrimitiveAggregable(argument(on(Person.class).getIncome())));
+        assertTrue(PrimitiveAggregation.isPrimitiveAggregable(argument(on(Person.class).getBirthDate().getTime())));
+        assertFalse(PrimitiveAggregation.isPrimitiveAggregable(argument(on(Person.class).getFloatIncome())));
+        assertFalse(PrimitiveAggregation.isPrimitiveAggregable(argument(on(Person.class).getAgeAsBigInteger())));
+    }
+
+    @Test
+    public void testAggregateInts() {
+        Argument<Integer> age = argument(on(Person.class).getAge());
+        assertEquals(Integer.valueOf(103), PrimitiveAggregation.aggregate(people.iterator(), age, new Sum()));
+        assertEquals(Integer.valueOf(29), PrimitiveAggregation.aggregate(people.iterator(), age, new Min()));
+        assertEquals(Integer.valueOf(39), PrimitiveAggregation.aggregate(people.iterator(), age, new Max()));
+        assertEquals(Integer.valueOf(34), PrimitiveAggregation.average(people.iterator(), age));
+        assertNull(PrimitiveAggregation.aggregate(new ArrayList<Person>().iterator(), age, new Sum()));
+        assertNull(PrimitiveAggregation.average(new ArrayList<Person>().iterator(), age));
+    }
+
+    @Test
+    public void testAggregateLongsSkippingNulls() {
+        Argument<Long> time = argument(on(Person.class).getBirthDate().getTime());
+        List<Person> withUnborn = asList(mario, new Person("Unborn"), luca);
+        long expectedSum = mario.getBirthDate().getTime() + luca.getBirthDate().getTime();
+        assertEquals(Long.valueOf(expectedSum), PrimitiveAggregation.aggregate(withUnborn.iterator(), time, new Sum()));
+        assertEquals(Long.valueOf(mario.getBirthDate().getTime()), PrimitiveAggregation.aggregate(withUnborn.iterator(), time, new Min()));
+        assertEquals(Long.valueOf(expectedSum / 3), PrimitiveAggregation.average(withUnborn.iterator(), time));
+        assertNull(PrimitiveAggregation.aggregate(asList(new Person("Unborn")).iterator(), time, new Max()));
+    }
+
+    @Test
+    public void testAggregateDoubles() {
+        Argument<Double> income = argument(on(Person.class).getIncome());
+        assertEquals(103 * 1.1, PrimitiveAggregation.aggregate(people.iterator(), income, new Sum()).doubleValue(), 0.0001);
+        assertEquals(Double.valueOf(29 * 1.1), PrimitiveAggregation.aggregate(people.iterator(), income, new Min()));
+        assertEquals(Double.valueOf(39 * 1.1), PrimitiveAggregation.aggregate(people.iterator(), income, new Max()));
+        assertEquals(103 * 1.1 / 3, PrimitiveAggregation.average(people.iterator(), income).doubleValue(), 0.0001);
+    }
+
+    @Test
+    public void testAggregateWithoutBoxingWhenJitted() {
+        ArgumentsFactory.enableJitting(JitPolicy.synchronous());
+        Argument<Long> time = argument(on(Person.class).getBirthDate().getTime());
+        List<Person> withUnborn = asList(mario, new Person("Unborn"), luca);
+        long expectedSum = mario.getBirthDate().getTime() + luca.getBirthDate().getTime();
+        assertEquals(Long.valueOf(expectedSum), PrimitiveAggregation.aggregate(withUnborn.iterator(), time, new Sum()));
+        assertTrue(time.getPrimitiveInvoker().getClass().getName().startsWith("ch.lambdaj.function.argument.MethodHandleInvoker_"));
+        assertEquals(Long.valueOf(expectedSum / 3), PrimitiveAggregation.average(withUnborn.iterator(), time));
+
+        Argument<Integer> age = argument(on(Person.class).getAge());
+        assertEquals(Integer.valueOf(103), PrimitiveAggregation.aggregate(people.iterator(), age, new Sum()));
+        assertTrue(age.getPrimitiveInvoker().getClass().getName().startsWith("ch.lambdaj.function.argument.MethodHandleInvoker_"));
+        assertEquals(Integer.valueOf(34), PrimitiveAggregation.average(people.iterator(), age));
+        assertEquals(Double.valueOf(39 * 1.1), PrimitiveAggregation.aggregate(people.iterator(), argument(on(Person.class).getIncome()), new Max()));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testAggregateNotPrimitiveArgument() {
+        PrimitiveAggregation.aggregate(people.iterator(), argument(on(Person.class).getFloatIncome()), new Sum());
+    }
+
+    @Test
+    public void testLambdaSelectsPrimitivePath() {
+        assertEquals(103, (int)sum(people, on(Person.class).getAge()));
+        assertEquals(0, (int)sum(new ArrayList<Person>(), on(Person.class).getAge()));
+        assertEquals(34, (int)avg(people, on(Person.class).getAge()));
+        assertEquals(0.0, avg(new ArrayList<Person>(), on(Person.class).getIncome()), 0.0);
+        assertEquals(29 * 1.1, min(people, on(Person.class).getIncome()), 0.0);
+        assertEquals(39 * 1.1, max(people, argument(on(Person.class).getIncome())), 0.0);
+        assertNull(max(new ArrayList<Person>(), argument(on(Person.class).getAge())));
+    }
+}
@@ -0,0 +1,96 @@
+// Modified or written by Lambdascale SRL for inclusion with lambdaj.
+// Copyright (c) 2009-2010 Mario Fusco.
+// Licensed under the Apache License, Version 2.0 (the "License")
+
+package ch.lambdaj.function.aggregate;
+
+import static ch.lambdaj.Lambda.*;
+import static org.junit.Assert.*;
+
+import ch.lambdaj.mock.*;
+import org.junit.*;
+
+import java.util.*;
+
+/**
+ * @author Mario Fusco
+ */
+public class SketchingAggregatorsTest {
+
+    @Test
+    public void testHyperLogLog() {
+        List<String> items = new ArrayList<String>();
+        for (int i = 0; i < 100000; i++) items.add("item" + (i % 20000));
+        long estimate = (Long)aggregate(items, new HyperLogLog());
+        assertEquals(20000, estimate, 20000 * 0.04);
+
+        assertEquals(0L, aggregate(new ArrayList<String>(), new HyperLogLog()));
+        assertEquals(3L, aggregate(Arrays.asList("a", "b", null, "c", "a"), new HyperLogLog()));
+    }
+
+    @Test
+    public void testParallelHyperLogLog() {
+        List<Integer> items = new ArrayList<Integer>();
+        for (int i = 0; i < 50000; i++) items.add(i % 7000);
+        assertEquals(aggregate(items, new HyperLogLog()), parallelAggregate(items, new HyperLogLog()));
+    }
+
+    @Test
+    public void testHyperLogLogOnArgument() {
+        List<Person> people = new ArrayList<Person>();
+        for (int i = 0; i < 1000; i++) people.add(new Person("Person" + i, i % 50));
+        assertEquals(50L, aggregate(people, new HyperLogLog(), on(Person.class).getAge()));
+    }
+
+    @Test
+    public void testQuantile() {
+        List<Integer> numbers = new ArrayList<Integer>();
+        for (int i = 1; i <= 100000; i++) numbers.add(i);
+        Collections.shuffle(numbers, new Random(42));
+
+        assertEquals(50000, aggregate(numbers, new Quantile(0.5)).doubleValue(), 100000 * 0.02);
+        assertEquals(99000, aggregate(numbers, new Quantile(0.99)).doubleValue(), 100000 * 0.02);
+        assertEquals(1.0, aggregate(numbers, new Quantile(0.0)).doubleValue(), 100000 * 0.02);
+        assertEquals(99000, parallelAggregate(numbers, new Quantile(0.99)).doubleValue(), 100000 * 0.02);
+        assertNull(aggregate(new ArrayList<Integer>(), new Quantile(0.5)));
+    }
+
+    @Test
+    public void testQuantileIsDeterministic() {
+        List<Integer> numbers = new ArrayList<Integer>();
+        for (int i = 1; i <= 100000; i++) numbers.add(i);
+        Collections.shuffle(numbers, new Random(42));
+
+        assertEquals(aggregate(numbers, new Quantile(0.9)), aggregate(numbers, new Quantile(0.9)));
+        assertEquals(aggregate(numbers, new Quantile(0.9, 200, 7L)), aggregate(numbers, new Quantile(0.9, 200, 7L)));
+    }
+
+    @Test
+    public void testHyperLogLogTellsApartNumbersWithSameHashCode() {
+        assertEquals(Long.valueOf(0L).hashCode(), Long.valueOf((1L << 32) + 1).hashCode());
+        assertEquals(2L, aggregate(Arrays.asList(0L, (1L << 32) + 1), new HyperLogLog()));
+    }
+
+    @Test
+    public void testQuantileOfFewNumbers() {
+        assertEquals(3.0, aggregate(Arrays.asList(5, 1, null, 3, 4, 2), new Quantile(0.5)));
+        assertEquals(5.0, aggregate(Arrays.asList(5, 1, 3, 4, 2), new Quantile(1.0)));
+    }
+
+    @Test
+    public void testTopK() {
+        List<String> items = new ArrayList<String>();
+        for (int i = 0; i < 50000; i++) items.add("rare" + i);
+        for (int i = 0; i < 3000; i++) items.add("first");
+        for (int i = 0; i < 2000; i++) items.add("second");
+        for (int i = 0; i < 1000; i++) items.add("third");
+        Collections.shuffle(items, new Random(42));
+
+        Map<Object, Long> topItems = (Map<Object, Long>)aggregate(items, new TopK(3));
+        assertEquals(Arrays.asList("first", "second", "third"), new ArrayList<Object>(topItems.keySet()));
+        assertEquals(3000, topItems.get("first"), 56000 * 0.001);
+
+        Map<Object, Long> parallelTopItems = (Map<Object, Long>)parallelAggregate(items, new TopK(3));
+        assertEquals(Arrays.asList("first", "second", "third"), new ArrayList<Object>(parallelTopItems.keySet()));
+    }
+}
@@ -0,0 +1,103 @@
+// Modified or written by Lambdascale SRL for inclusion with lambdaj.
+// Copyright (c) 2009-2010 Mario Fusco.
+// Licensed under the Apache License, Version 2.0 (the "License")
+
+package ch.lambdaj.function.aggregate;
+
+import static ch.lambdaj.Lambda.*;
+import static java.util.Arrays.*;
+import static org.junit.Assert.*;
+
+import ch.lambdaj.mock.*;
+import org.junit.*;
+
+import java.util.*;
+
+/**
+ * @author Mario Fusco
+ */
+public class StatsTest {
+
+    @Test
+    public void testStatsOnArgument() {
+        List<Person> people = asList(new Person("Mario", 35), new Person("Luca", 29), new Person("Biagio", 39), new Person("Celestino", 29));
+        Stats stats = stats(people, on(Person.class).getAge());
+        assertEquals(4, stats.getCount());
+        assertEquals(132.0, stats.getSum(), 0.0);
+        assertEquals(29.0, stats.getMin(), 0.0);
+        assertEquals(39.0, stats.getMax(), 0.0);
+        assertEquals(33.0, stats.getAvg(), 0.0);
+        assertEquals(18.0, stats.getVariance(), 0.000001);
+        assertEquals(Math.sqrt(18.0), stats.getStandardDeviation(), 0.000001);
+
+        assertEquals(stats.toString(), stats(people, argument(on(Person.class).getAge())).toString());
+    }
+
+    @Test
+    public void testStatsIgnoreNulls() {
+        Stats stats = stats(asList(2.5, null, -1.5, null));
+        assertEquals(2, stats.getCount());
+        assertEquals(1.0, stats.getSum(), 0.0);
+        assertEquals(-1.5, stats.getMin(), 0.0);
+        assertEquals(2.5, stats.getMax(), 0.0);
+        assertEquals(0.5, stats.getAvg(), 0.0);
+        assertEquals(4.0, stats.getVariance(), 0.000001);
+    }
+
+    @Test
+    public void testExactSumOfLongs() {
+        long big = (1L << 53) + 1;
+        Stats stats = stats(asList(big, 1L, 1L));
+        assertTrue(stats.isIntegral());
+        assertEquals(big + 2, stats.getLongSum());
+        assertEquals(big + 2, stats.merge(stats(asList(1L, -1L))).getLongSum());
+        assertFalse(stats.merge(stats(asList(0.5))).isIntegral());
+    }
+
+    @Test
+    public void testExactMinAndMaxOfLongs() {
+        long big = 1L << 53;
+        Stats stats = stats(asList(big, big + 1, big));
+        assertEquals(big, stats.getLongMin());
+        assertEquals(big + 1, stats.getLongMax());
+        Stats merged = stats(asList(big + 1)).merge(stats(asList(big + 3, big + 2)));
+        assertEquals(big + 1, merged.getLongMin());
+        assertEquals(big + 3, merged.getLongMax());
+        assertTrue(merged.toString().startsWith("count=3, sum=" + (3 * big + 6) + ", min=" + (big + 1) + ", max=" + (big + 3) + ", "));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testNoLongMinOfDoubles() {
+        stats(asList(2.5, 1.0)).getLongMin();
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testNoLongSumOfDoubles() {
+        stats(asList(2.5, 1.0)).getLongSum();
+    }
+
+    @Test
+    public void testEmptyStats() {
+        Stats stats = stats(new ArrayList<Integer>());
+        assertEquals(0, stats.getCount());
+        assertEquals(0.0, stats.getSum(), 0.0);
+        assertTrue(Double.isNaN(stats.getMin()));
+        assertTrue(Double.isNaN(stats.getMax()));
+        assertEquals(0.0, stats.getAvg(), 0.0);
+        assertEquals(0.0, stats.getVariance(), 0.0);
+    }
+
+    @Test
+    public void testMergeStats() {
+        List<Integer> numbers = asList(3, 8, 1, 9, 4, 4, 7);
+        Stats all = stats(numbers);
+        Stats merged = stats(numbers.subList(0, 3)).merge(stats(numbers.subList(3, 7)));
+        assertEquals(all.getCount(), merged.getCount());
+        assertEquals(all.getSum(), merged.getSum(), 0.0);
+        assertEquals(all.getMin(), merged.getMin(), 0.0);
+        assertEquals(all.getMax(), merged.getMax(), 0.0);
+        assertEquals(all.getAvg(), merged.getAvg(), 0.000001);
+        assertEquals(all.getVariance(), merged.getVariance(), 0.000001);
+        assertSame(all, all.merge(stats(new ArrayList<Integer>())));
+    }
+}
@@ -0,0 +1,46 @@
+// Modified or written by Lambdascale SRL for inclusion with lambdaj.
+// Copyright (c) 2009-2010 Mario Fusco.
+// Licensed under the Apache License, Version 2.0 (the "License")
+
+package ch.lambdaj.function.argument;
+
+import static ch.lambdaj.Lambda.*;
+import static java.util.Arrays.*;
+import static org.junit.Assert.*;
+
+import ch.lambdaj.mock.*;
+import org.junit.*;
+
+/**
+ * @author Mario Fusco
+ */
+public class ArgumentTreeTest {
+
+    @Test
+    public void testMergeSharedPrefixes() {
+        Argument<Integer> bestFriendAge = argument(on(Person.class).getBestFriend().getAge());
+        Argument<String> bestFriendName = argument(on(Person.class).getBestFriend().getFirstName());
+        Argument<Integer> age = argument(on(Person.class).getAge());
+        Argument<Boolean> bestFriendOfBestFriendYounger = argument(on(Person.class).getBestFriend().getBestFriend().isYoungerThan(30));
+        ArgumentTree tree = ArgumentTree.of(asList(bestFriendAge, bestFriendName, age, bestFriendOfBestFriendYounger));
+
+        assertEquals(4, tree.size());
+        assertEquals(5, tree.getEvaluationPointsCount());
+
+        Person me = new Person("Mario", 35);
+        Person biagio = new Person("Biagio", 39);
+        me.setBestFriend(biagio);
+        biagio.setBestFriend(new Person("Luca", 29));
+
+        ArgumentTree.Evaluation evaluation = tree.evaluate(me);
+        assertEquals(39, evaluation.get(0));
+        assertEquals("Biagio", evaluation.get(1));
+        assertEquals(35, evaluation.get(2));
+        assertEquals(true, evaluation.get(3));
+
+        ArgumentTree.Evaluation nullEvaluation = tree.evaluate(new Person("Lonely", 20));
+        assertNull(nullEvaluation.get(0));
+        assertNull(nullEvaluation.get(3));
+        assertEquals(20, nullEvaluation.get(2));
+    }
+}
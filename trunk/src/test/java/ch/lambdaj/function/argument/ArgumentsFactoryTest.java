@@ -10,6 +10,9 @@ import static org.junit.Assert.*;
 import static org.junit.Assert.assertEquals;
 
 import java.util.*;
+import java.util.concurrent.*;
+
+import ch.lambdaj.mock.*;
 
 import org.joda.time.DateTime;
 import org.joda.time.LocalDate;
@@ -55,6 +58,33 @@ public class ArgumentsFactoryTest {
         assertTrue(createArgumentPlaceholder(LocalDate.class).equals(createArgumentPlaceholder(LocalDate.class)));
     }
 
+    @Test
+    public void testConcurrentArgumentsCreation() throws Exception {
+        final int threads = 8;
+        final CyclicBarrier barrier = new CyclicBarrier(threads);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Argument<Integer>>> futures = new ArrayList<Future<Argument<Integer>>>();
+            for (int i = 0; i < threads; i++) {
+                futures.add(executor.submit(new Callable<Argument<Integer>>() {
+                    public Argument<Integer> call() throws Exception {
+                        barrier.await();
+                        Argument<Integer> argument = null;
+                        for (int j = 0; j < 1000; j++) argument = actualArgument(createArgument(Person.class).getAge());
+                        return argument;
+                    }
+                }));
+            }
+            Argument<Integer> argument = futures.get(0).get();
+            for (Future<Argument<Integer>> future : futures) {
+                assertEquals(argument, future.get());
+                assertEquals(Integer.valueOf(35), future.get().evaluate(new Person("Mario", 35)));
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
     public static class LocalDateArgumentCreator implements FinalClassArgumentCreator<LocalDate> {
         private final long MSECS_IN_DAY = 1000L * 60L * 60L * 24L;
         public LocalDate createArgumentPlaceHolder(int seed) {
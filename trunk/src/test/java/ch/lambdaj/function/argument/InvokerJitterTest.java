@@ -0,0 +1,132 @@
+// Modified or written by Lambdascale SRL for inclusion with lambdaj.
+// Copyright (c) 2009-2010 Mario Fusco.
+// Licensed under the Apache License, Version 2.0 (the "License")
+
+package ch.lambdaj.function.argument;
+
+import ch.lambdaj.mock.*;
+import org.junit.*;
+
+import java.lang.ref.*;
+import java.util.*;
+
+import static org.junit.Assert.*;
+import static org.junit.Assume.*;
+
+/**
+ * @author Mario Fusco
+ */
+public class InvokerJitterTest {
+
+    private static InvocationSequence sequence(Class<?> rootClass, Object[] args, String methodName, Class<?>... parameterTypes) throws NoSuchMethodException {
+        return new InvocationSequence(new InvocationSequence(rootClass), new Invocation(rootClass, rootClass.getMethod(methodName, parameterTypes), args));
+    }
+
+    private static Invoker jit(InvocationSequence sequence) {
+        return new InvokerJitter(InvokerJitterTest.class.getClassLoader(), sequence).jitInvoker();
+    }
+
+    @Test
+    public void testJitPrimitiveArgument() throws Exception {
+        Invoker invoker = jit(sequence(Person.class, new Object[] { 30 }, "isYoungerThan", int.class));
+        assertEquals(true, invoker.invokeOn(new Person("Mario", 20)));
+        assertEquals(false, invoker.invokeOn(new Person("Mario", 40)));
+        assertNull(invoker.invokeOn(null));
+    }
+
+    @Test
+    public void testJitMultipleArguments() throws Exception {
+        Invoker invoker = jit(sequence(Text.class, new Object[] { 1, 3 }, "subString", int.class, int.class));
+        assertEquals(new Text("ar"), invoker.invokeOn(new Text("Mario")));
+    }
+
+    @Test
+    public void testJitStringEnumAndFieldArguments() throws Exception {
+        Person key = new Person("Domenico");
+        Map<Object, String> map = new HashMap<Object, String>();
+        map.put("name", "Mario");
+        map.put(IPerson.Gender.MALE, "male");
+        map.put(key, "father");
+
+        assertEquals("Mario", jit(sequence(Map.class, new Object[] { "name" }, "get", Object.class)).invokeOn(map));
+        assertEquals("male", jit(sequence(Map.class, new Object[] { IPerson.Gender.MALE }, "get", Object.class)).invokeOn(map));
+        assertEquals("father", jit(sequence(Map.class, new Object[] { key }, "get", Object.class)).invokeOn(map));
+        assertNull(jit(sequence(Map.class, new Object[] { null }, "get", Object.class)).invokeOn(map));
+    }
+
+    @Test
+    public void testJitChainedInvocationWithArgument() throws Exception {
+        InvocationSequence getBestFriend = sequence(Person.class, null, "getBestFriend");
+        InvocationSequence isYoungerThan = new InvocationSequence(getBestFriend, new Invocation(Person.class, Person.class.getMethod("isYoungerThan", int.class), new Object[] { 30 }));
+        Invoker invoker = jit(isYoungerThan);
+
+        Person person = new Person("Mario", 35);
+        assertNull(invoker.invokeOn(person));
+        person.setBestFriend(new Person("Biagio", 25));
+        assertEquals(true, invoker.invokeOn(person));
+    }
+
+    @Test
+    public void testShareClassOfEqualSequences() throws Exception {
+        Person first = new Person("Domenico");
+        Person second = new Person("Biagio");
+        JitStatistics before = ArgumentsFactory.getJitStatistics();
+        Invoker firstInvoker = jit(sequence(Map.class, new Object[] { first }, "containsKey", Object.class));
+        Invoker secondInvoker = jit(sequence(Map.class, new Object[] { second }, "containsKey", Object.class));
+        JitStatistics after = ArgumentsFactory.getJitStatistics();
+
+        assertSame(firstInvoker.getClass(), secondInvoker.getClass());
+        assertEquals(1, after.getGeneratedClasses() - before.getGeneratedClasses());
+        assertEquals(1, after.getHits() - before.getHits());
+        assertEquals(1, after.getMisses() - before.getMisses());
+
+        Map<Object, String> map = new HashMap<Object, String>();
+        map.put(first, "father");
+        assertEquals(true, firstInvoker.invokeOn(map));
+        assertEquals(false, secondInvoker.invokeOn(map));
+    }
+
+    @Test
+    public void testShareClassOfSequencesWithDifferentConstants() throws Exception {
+        Invoker younger30 = jit(sequence(Person.class, new Object[] { 30 }, "isYoungerThan", int.class));
+        Invoker younger40 = jit(sequence(Person.class, new Object[] { 40 }, "isYoungerThan", int.class));
+        assertSame(younger30.getClass(), younger40.getClass());
+        assertEquals(false, younger30.invokeOn(new Person("Mario", 35)));
+        assertEquals(true, younger40.invokeOn(new Person("Mario", 35)));
+    }
+
+    @Test
+    public void testDoNotRetainArguments() throws Exception {
+        Person key = new Person("Domenico");
+        Invoker invoker = jit(sequence(Map.class, new Object[] { key }, "containsKey", Object.class));
+        assertEquals(true, invoker.invokeOn(Collections.singletonMap(key, "father")));
+
+        WeakReference<Person> reference = new WeakReference<Person>(key);
+        key = null;
+        assertCollected(reference);
+        assertEquals(false, invoker.invokeOn(Collections.singletonMap(new Person("Domenico"), "father")));
+    }
+
+    static void assertCollected(Reference<?> reference) throws InterruptedException {
+        Reference<Object> sentinel = new WeakReference<Object>(new Object());
+        long deadline = System.currentTimeMillis() + 5000;
+        while ((sentinel.get() != null || reference.get() != null) && System.currentTimeMillis() < deadline) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        assumeTrue(sentinel.get() == null);
+        assertNull(reference.get());
+    }
+
+    @Test
+    public void testExceptionIsWrappedAsByReflection() throws Exception {
+        InvocationSequence sequence = sequence(MethodHandleInvokerFactoryTest.FailingBean.class, null, "getValue");
+        MethodHandleInvokerFactoryTest.assertSameFailure(sequence, jit(sequence));
+    }
+
+    @Test
+    public void testIsJittable() throws Exception {
+        assertTrue(InvokerJitter.isJittable(new Invocation(Person.class, Person.class.getMethod("isYoungerThan", int.class), new Object[] { 30 })));
+        assertFalse(InvokerJitter.isJittable(new Invocation(Person.class, Person.class.getMethod("setAge", int.class), new Object[] { 30 })));
+    }
+}
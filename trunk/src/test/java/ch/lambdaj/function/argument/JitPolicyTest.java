@@ -0,0 +1,74 @@
+// Modified or written by Lambdascale SRL for inclusion with lambdaj.
+// Copyright (c) 2009-2010 Mario Fusco.
+// Licensed under the Apache License, Version 2.0 (the "License")
+
+package ch.lambdaj.function.argument;
+
+import ch.lambdaj.mock.*;
+import org.junit.*;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Mario Fusco
+ */
+public class JitPolicyTest {
+
+    @After
+    public void disableJitting() {
+        ArgumentsFactory.enableJitting(false);
+    }
+
+    private static InvocationSequence isYoungerThan(int age) throws NoSuchMethodException {
+        return new InvocationSequence(new InvocationSequence(Person.class), new Invocation(Person.class, Person.class.getMethod("isYoungerThan", int.class), new Object[] { age }));
+    }
+
+    @Test
+    public void testNoJittingWhenDisabled() throws Exception {
+        InvocationSequence sequence = isYoungerThan(30);
+        for (int i = 0; i < 10; i++) assertEquals(true, sequence.evaluate(new Person("Mario", 20)));
+        assertFalse(sequence.isJitted());
+    }
+
+    @Test
+    public void testSynchronousJitting() throws Exception {
+        ArgumentsFactory.enableJitting(JitPolicy.synchronous());
+        InvocationSequence sequence = isYoungerThan(30);
+        assertEquals(true, sequence.evaluate(new Person("Mario", 20)));
+        assertTrue(sequence.isJitted());
+        assertEquals(false, sequence.evaluate(new Person("Mario", 40)));
+    }
+
+    @Test
+    public void testJittingAfterEvaluations() throws Exception {
+        ArgumentsFactory.enableJitting(JitPolicy.afterEvaluations(3));
+        InvocationSequence sequence = isYoungerThan(30);
+        sequence.evaluate(new Person("Mario", 20));
+        sequence.evaluate(new Person("Mario", 20));
+        assertFalse(sequence.isJitted());
+        sequence.evaluate(new Person("Mario", 20));
+        assertTrue(sequence.isJitted());
+    }
+
+    @Test
+    public void testBackgroundJitting() throws Exception {
+        ArgumentsFactory.enableJitting(JitPolicy.background(2));
+        InvocationSequence sequence = isYoungerThan(30);
+        for (int i = 0; i < 100 && !sequence.isJitted(); i++) {
+            assertEquals(true, sequence.evaluate(new Person("Mario", 20)));
+            Thread.sleep(10);
+        }
+        assertTrue(sequence.isJitted());
+        assertEquals(false, sequence.evaluate(new Person("Mario", 40)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidThreshold() {
+        JitPolicy.afterEvaluations(0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidBackgroundThreads() {
+        JitPolicy.background(0);
+    }
+}
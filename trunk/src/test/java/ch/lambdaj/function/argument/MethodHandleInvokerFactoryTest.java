@@ -0,0 +1,147 @@
+// Modified or written by Lambdascale SRL for inclusion with lambdaj.
+// Copyright (c) 2009-2010 Mario Fusco.
+// Licensed under the Apache License, Version 2.0 (the "License")
+
+package ch.lambdaj.function.argument;
+
+import ch.lambdaj.mock.*;
+import org.junit.*;
+
+import java.io.*;
+import java.lang.ref.*;
+import java.lang.reflect.*;
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Mario Fusco
+ */
+public class MethodHandleInvokerFactoryTest {
+
+    private static InvocationSequence sequence(Class<?> rootClass, Object[] args, String methodName, Class<?>... parameterTypes) throws NoSuchMethodException {
+        return new InvocationSequence(new InvocationSequence(rootClass), new Invocation(rootClass, rootClass.getMethod(methodName, parameterTypes), args));
+    }
+
+    private static Invoker createInvoker(InvocationSequence sequence) {
+        return MethodHandleInvokerFactory.createInvoker(MethodHandleInvokerFactoryTest.class.getClassLoader(), sequence);
+    }
+
+    @Test
+    public void testGetter() throws Exception {
+        Invoker invoker = createInvoker(sequence(Person.class, null, "getAge"));
+        assertEquals(35, invoker.invokeOn(new Person("Mario", 35)));
+        assertNull(invoker.invokeOn(null));
+    }
+
+    @Test
+    public void testMethodWithArguments() throws Exception {
+        assertEquals(true, createInvoker(sequence(Person.class, new Object[] { 30 }, "isYoungerThan", int.class)).invokeOn(new Person("Mario", 20)));
+        assertEquals(new Text("ar"), createInvoker(sequence(Text.class, new Object[] { 1, 3 }, "subString", int.class, int.class)).invokeOn(new Text("Mario")));
+
+        Person key = new Person("Domenico");
+        Map<Object, String> map = new HashMap<Object, String>();
+        map.put(key, "father");
+        assertEquals("father", createInvoker(sequence(Map.class, new Object[] { key }, "get", Object.class)).invokeOn(map));
+        assertNull(createInvoker(sequence(Map.class, new Object[] { null }, "get", Object.class)).invokeOn(map));
+    }
+
+    @Test
+    public void testNullSafeChainedInvocation() throws Exception {
+        InvocationSequence getBestFriend = sequence(Person.class, null, "getBestFriend");
+        Invoker invoker = createInvoker(new InvocationSequence(getBestFriend, new Invocation(Person.class, Person.class.getMethod("getFirstName"), null)));
+
+        Person person = new Person("Mario", 35);
+        assertNull(invoker.invokeOn(person));
+        person.setBestFriend(new Person("Biagio", 25));
+        assertEquals("Biagio", invoker.invokeOn(person));
+    }
+
+    @Test
+    public void testVoidMethod() throws Exception {
+        Person person = new Person("Mario", 35);
+        assertNull(createInvoker(sequence(Person.class, new Object[] { 40 }, "setAge", int.class)).invokeOn(person));
+        assertEquals(40, person.getAge());
+    }
+
+    @Test
+    public void testNonPublicClass() throws Exception {
+        Invoker invoker = createInvoker(sequence(PackagePrivateBean.class, null, "getValue"));
+        assertEquals("value", invoker.invokeOn(new PackagePrivateBean()));
+    }
+
+    @Test
+    public void testShareClassOfSequencesWithDifferentArguments() throws Exception {
+        InvocationSequence getBestFriend = sequence(Person.class, null, "getBestFriend");
+        Method isYoungerThan = Person.class.getMethod("isYoungerThan", int.class);
+        JitStatistics before = ArgumentsFactory.getJitStatistics();
+        Invoker younger30 = createInvoker(new InvocationSequence(getBestFriend, new Invocation(Person.class, isYoungerThan, new Object[] { 30 })));
+        Invoker younger40 = createInvoker(new InvocationSequence(getBestFriend, new Invocation(Person.class, isYoungerThan, new Object[] { 40 })));
+        JitStatistics after = ArgumentsFactory.getJitStatistics();
+
+        assertSame(younger30.getClass(), younger40.getClass());
+        assertEquals(1, after.getGeneratedClasses() - before.getGeneratedClasses());
+        assertEquals(1, after.getHits() - before.getHits());
+
+        Person person = new Person("Mario", 35);
+        person.setBestFriend(new Person("Biagio", 35));
+        assertEquals(false, younger30.invokeOn(person));
+        assertEquals(true, younger40.invokeOn(person));
+    }
+
+    @Test
+    public void testDoNotRetainArguments() throws Exception {
+        Person key = new Person("Domenico");
+        Invoker invoker = createInvoker(sequence(Map.class, new Object[] { key }, "containsKey", Object.class));
+        assertEquals(true, invoker.invokeOn(Collections.singletonMap(key, "father")));
+
+        WeakReference<Person> reference = new WeakReference<Person>(key);
+        key = null;
+        InvokerJitterTest.assertCollected(reference);
+        assertEquals(false, invoker.invokeOn(Collections.singletonMap(new Person("Domenico"), "father")));
+    }
+
+    @Test
+    public void testHandleIsStaticFinal() throws Exception {
+        Invoker invoker = createInvoker(sequence(Person.class, null, "getAge"));
+        Field handle = invoker.getClass().getDeclaredField("HANDLE");
+        assertTrue(Modifier.isStatic(handle.getModifiers()));
+        assertTrue(Modifier.isFinal(handle.getModifiers()));
+    }
+
+    @Test
+    public void testExceptionIsWrappedAsByReflection() throws Exception {
+        InvocationSequence sequence = sequence(FailingBean.class, null, "getValue");
+        assertSameFailure(sequence, createInvoker(sequence));
+    }
+
+    static void assertSameFailure(Invoker reflectiveInvoker, Invoker jittedInvoker) {
+        Throwable reflectiveFailure = null, jittedFailure = null;
+        try {
+            reflectiveInvoker.invokeOn(new FailingBean());
+        } catch (RuntimeException e) {
+            reflectiveFailure = e;
+        }
+        try {
+            jittedInvoker.invokeOn(new FailingBean());
+        } catch (RuntimeException e) {
+            jittedFailure = e;
+        }
+        assertEquals(RuntimeException.class, jittedFailure.getClass());
+        assertEquals(reflectiveFailure.getCause().getClass(), jittedFailure.getCause().getClass());
+        assertTrue(jittedFailure.getCause() instanceof InvocationTargetException);
+        assertTrue(jittedFailure.getCause().getCause() instanceof IOException);
+    }
+
+    public static class FailingBean {
+        public String getValue() throws IOException {
+            throw new IOException("unreadable value");
+        }
+    }
+
+    static class PackagePrivateBean {
+        public String getValue() {
+            return "value";
+        }
+    }
+}
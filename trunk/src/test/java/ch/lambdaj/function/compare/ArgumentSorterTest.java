@@ -0,0 +1,138 @@
+// Modified or written by Lambdascale SRL for inclusion with lambdaj.
+// Copyright (c) 2009-2010 Mario Fusco.
+// Licensed under the Apache License, Version 2.0 (the "License")
+
+package ch.lambdaj.function.compare;
+
+import static ch.lambdaj.Lambda.*;
+import static java.util.Arrays.*;
+import static org.junit.Assert.*;
+
+import java.util.*;
+
+import org.junit.*;
+
+/**
+ * @author Mario Fusco
+ */
+public class ArgumentSorterTest {
+
+    public static class Item {
+        private static int evaluations;
+
+        private final String name;
+        private final Object key;
+
+        public Item(String name, Object key) {
+            this.name = name;
+            this.key = key;
+        }
+
+        public Object getKey() {
+            evaluations++;
+            return key;
+        }
+
+        public Long getLongKey() {
+            return (Long)getKey();
+        }
+
+        public Double getDoubleKey() {
+            return (Double)getKey();
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+
+    private static List<String> names(List<?> items) {
+        return extract(items, on(Item.class).getName());
+    }
+
+    @Test
+    public void testEvaluateArgumentOncePerItem() {
+        List<Item> items = new ArrayList<Item>();
+        Random random = new Random(17);
+        for (int i = 0; i < 1000; i++) { items.add(new Item("item" + i, (long)random.nextInt(100))); }
+
+        Item.evaluations = 0;
+        List<Item> sorted = sort(items, on(Item.class).getLongKey());
+        assertEquals(1000, Item.evaluations);
+
+        List<Item> expected = new ArrayList<Item>(items);
+        Collections.sort(expected, new ArgumentComparator<Item, Long>(on(Item.class).getLongKey()));
+        assertEquals(expected, sorted);
+        assertTrue(sorted instanceof ArrayList);
+    }
+
+    @Test
+    public void testStableSortWithNullsLast() {
+        List<Item> items = asList(new Item("a", 3L), new Item("b", null), new Item("c", 1L), new Item("d", 3L), new Item("e", null), new Item("f", 2L));
+        assertEquals(asList("c", "f", "a", "d", "b", "e"), names(sort(items, on(Item.class).getLongKey())));
+        assertEquals(asList("a", "d", "f", "c", "b", "e"), names(sort(items, on(Item.class).getLongKey(), DESCENDING)));
+    }
+
+    @Test
+    public void testSortOnDoubleKeys() {
+        List<Item> items = asList(new Item("a", 0.5), new Item("b", Double.NaN), new Item("c", -1.5), new Item("d", 0.5));
+        assertEquals(asList("c", "a", "d", "b"), names(sort(items, on(Item.class).getDoubleKey())));
+        assertEquals(asList("b", "a", "d", "c"), names(sort(items, on(Item.class).getDoubleKey(), DESCENDING)));
+    }
+
+    @Test
+    public void testSortOnObjectKeysWithComparator() {
+        List<Item> items = asList(new Item("b", "x"), new Item("A", "y"), new Item("c", "z"), new Item("a", "w"));
+        assertEquals(asList("A", "a", "b", "c"), names(sort(items, on(Item.class).getName(), IGNORE_CASE)));
+        assertEquals(asList("a", "b", "A", "c"), names(sort(items, on(Item.class).getKey(), (Comparator<Object>)null)));
+        assertTrue(sort(new ArrayList<Item>(), on(Item.class).getName()).isEmpty());
+    }
+
+    private static List<Item> randomItems(int size, int range) {
+        List<Item> items = new ArrayList<Item>();
+        Random random = new Random(31);
+        for (int i = 0; i < size; i++) {
+            int key = random.nextInt(range);
+            items.add(new Item("item" + i, key == 0 ? null : (long)key));
+        }
+        return items;
+    }
+
+    @Test
+    public void testParallelSort() {
+        List<Item> items = randomItems(50000, 1000);
+        for (int option = 0; option < 2; option++) {
+            List<Item> sorted = parallelSort(items, on(Item.class).getLongKey(), option);
+            assertEquals(sort(items, on(Item.class).getLongKey(), option), sorted);
+        }
+        assertEquals(sort(items, on(Item.class).getName()), parallelSort(items.toArray(), on(Item.class).getName()));
+    }
+
+    @Test
+    public void testTopAndBottom() {
+        List<Item> items = randomItems(5000, 50);
+        List<Item> ascending = sort(items, on(Item.class).getLongKey());
+        List<Item> descending = sort(items, on(Item.class).getLongKey(), DESCENDING);
+
+        assertEquals(ascending.subList(0, 20), bottom(items, on(Item.class).getLongKey(), 20));
+        assertEquals(descending.subList(0, 20), top(items, on(Item.class).getLongKey(), 20));
+        assertEquals(descending.subList(0, 20), bottom(items, on(Item.class).getLongKey(), 20, DESCENDING));
+        assertEquals(ascending.subList(0, 20), top(items, on(Item.class).getLongKey(), 20, DESCENDING));
+        assertEquals(ascending, bottom(items, on(Item.class).getLongKey(), 10000));
+        assertEquals(descending, top(items, on(Item.class).getLongKey(), Integer.MAX_VALUE));
+        assertTrue(top(items, on(Item.class).getLongKey(), 0).isEmpty());
+
+        List<Item> names = asList(new Item("b", null), new Item("A", null), new Item("c", null), new Item("a", null));
+        assertEquals(asList("c", "b"), names(top(names, on(Item.class).getName(), 2, IGNORE_CASE)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeTop() {
+        top(new ArrayList<Item>(), on(Item.class).getName(), -1);
+    }
+}
@@ -0,0 +1,112 @@
+// Modified or written by Lambdascale SRL for inclusion with lambdaj.
+// Copyright (c) 2009-2010 Mario Fusco.
+// Licensed under the Apache License, Version 2.0 (the "License")
+
+package ch.lambdaj.function.matcher;
+
+import static ch.lambdaj.Lambda.*;
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+import org.hamcrest.*;
+import org.junit.*;
+
+import ch.lambdaj.mock.*;
+
+import java.util.*;
+
+/**
+ * @author Mario Fusco
+ */
+public class CompiledMatcherTest {
+
+    public static class Sale {
+        private final Person buyer;
+        private final Person seller;
+        private final double cost;
+        private int buyerInvocations = 0;
+
+        public Sale() {
+            this(null, null, 0.0);
+        }
+
+        public Sale(Person buyer, Person seller, double cost) {
+            this.buyer = buyer;
+            this.seller = seller;
+            this.cost = cost;
+        }
+
+        public Person getBuyer() {
+            buyerInvocations++;
+            return buyer;
+        }
+
+        public Person getSeller() {
+            return seller;
+        }
+
+        public double getCost() {
+            return cost;
+        }
+    }
+
+    private final Person mario = new Person("Mario", 35);
+    private final Person luca = new Person("Luca", 29);
+    private final Person biagio = new Person("Biagio", 39);
+
+    @Test
+    public void testSharePrefixesOfArguments() {
+        Sale sale = new Sale(mario, luca, 10.0);
+        LambdaJMatcher<?> matcher = having(on(Sale.class).getBuyer().getAge(), greaterThan(30))
+                .and(having(on(Sale.class).getBuyer().getFirstName(), equalTo("Mario")))
+                .and(having(on(Sale.class).getSeller().getAge(), lessThan(30)));
+
+        assertTrue(matcher.matches(sale));
+        assertEquals(2, sale.buyerInvocations);
+
+        LambdaJMatcher<?> compiled = matcher.compile();
+        sale.buyerInvocations = 0;
+        assertTrue(compiled.matches(sale));
+        assertEquals(1, sale.buyerInvocations);
+        assertSame(compiled, compiled.compile());
+    }
+
+    @Test
+    public void testShortCircuit() {
+        Sale sale = new Sale(luca, mario, 10.0);
+        LambdaJMatcher<?> compiled = having(on(Sale.class).getSeller().getAge(), greaterThan(50))
+                .and(having(on(Sale.class).getBuyer().getAge(), greaterThan(20))).compile();
+        assertFalse(compiled.matches(sale));
+        assertEquals(0, sale.buyerInvocations);
+
+        LambdaJMatcher<?> or = having(on(Sale.class).getSeller().getAge(), greaterThan(30))
+                .or(having(on(Sale.class).getBuyer().getAge(), greaterThan(20))).compile();
+        assertTrue(or.matches(sale));
+        assertEquals(0, sale.buyerInvocations);
+    }
+
+    @Test
+    public void testSameResultsOfUncompiledMatcher() {
+        List<Sale> sales = new ArrayList<Sale>();
+        Person[] people = { mario, luca, biagio, null };
+        for (Person buyer : people) {
+            for (Person seller : people) sales.add(new Sale(buyer, seller, 10.0));
+        }
+
+        LambdaJMatcher<?> matcher = having(on(Sale.class).getBuyer().getAge(), greaterThan(30))
+                .or(having(on(Sale.class).getSeller().getFirstName(), startsWith("L")).and(having(on(Sale.class).getBuyer().getFirstName(), not(equalTo("Mario")))))
+                .or(having(on(Sale.class).getCost(), lessThan(5.0)));
+        assertEquals(select(sales, matcher), select(sales, matcher.compile()));
+    }
+
+    @Test
+    public void testCompileOtherMatchers() {
+        Matcher<?> compiled = CompiledMatcher.compile(having(on(Sale.class).getCost(), greaterThan(5.0)).and(notNullValue()));
+        assertTrue(compiled.matches(new Sale(mario, luca, 10.0)));
+        assertFalse(compiled.matches(null));
+
+        Description description = new StringDescription();
+        CompiledMatcher.compile(having(on(Sale.class).getCost(), greaterThan(5.0))).describeTo(description);
+        assertEquals("hasArgument(\"cost\", a value greater than <5.0>)", description.toString());
+    }
+}
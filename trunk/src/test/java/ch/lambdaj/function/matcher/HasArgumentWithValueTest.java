@@ -25,4 +25,22 @@ public class HasArgumentWithValueTest {
 		matcher.describeTo(description);
 		assertEquals("hasArgument(\"bestFriend.age\", is <39>)", description.toString());
 	}
+
+	@Test
+	public void testHavingOnItemOfDifferentClass() {
+		Matcher<?> matcher = having(on(Person.class).getAge(), is(equalTo(35)));
+		assertTrue(matcher.matches(new Person("Mario", "Fusco", 35)));
+		assertFalse(matcher.matches("Mario"));
+		assertFalse(having(on(Person.class).getAge(), is(equalTo(35))).compile().matches("Mario"));
+	}
+
+	@Test
+	public void testHavingGetterDeclaredInSuperclass() {
+		Person me = new Person("Mario", "Fusco", 35);
+		Matcher<?> matcher = having(on(PersonThrowingException.class).getAge(), is(equalTo(35)));
+		assertTrue(matcher.matches(me));
+		assertFalse(matcher.matches(new Person("Biagio", "Beatrice", 39)));
+		assertFalse(matcher.matches("Mario"));
+		assertTrue(having(on(PersonThrowingException.class).getAge(), is(equalTo(35))).compile().matches(me));
+	}
 }
@@ -25,4 +25,15 @@ public class HasNestedPropertyWithValueTest {
 		matcher.describeTo(description);
 		assertEquals("hasProperty(\"bestFriend.age\", is <39>)", description.toString());
 	}
+
+	@Test
+	public void testMissingProperty() {
+		Person me = new Person("Mario");
+		me.setBestFriend(new Person("Biagio"));
+		Matcher<?> matcher = hasNestedProperty("bestFriend.name", is(nullValue()));
+		assertFalse(matcher.matches(me));
+		assertFalse(matcher.matches("Mario"));
+		assertTrue(hasNestedProperty("bestFriend.age", is(nullValue())).matches(new Person("Mario")));
+		assertTrue(hasNestedProperty("length", is(nullValue())).matches(null));
+	}
 }
@@ -0,0 +1,61 @@
+// Modified or written by Lambdascale SRL for inclusion with lambdaj.
+// Copyright (c) 2009-2010 Mario Fusco.
+// Licensed under the Apache License, Version 2.0 (the "License")
+
+package ch.lambdaj.group;
+
+import static ch.lambdaj.Lambda.on;
+import static ch.lambdaj.group.Groups.*;
+import static java.util.Arrays.*;
+import static org.junit.Assert.*;
+
+import java.util.*;
+
+import org.junit.*;
+
+import ch.lambdaj.function.aggregate.*;
+import ch.lambdaj.mock.*;
+
+/**
+ * @author Mario Fusco
+ */
+public class AggregatedGroupTest {
+
+    private final Person me = new Person("Mario", "Fusco", 35);
+    private final Person luca = new Person("Luca", "Marrocco", 29);
+    private final Person biagio = new Person("Biagio", "Beatrice", 39);
+    private final Person celestino = new Person("Celestino", "Bellone", 29);
+
+    @Test
+    public void testAggregateByAge() {
+        List<Person> meAndMyFriends = asList(me, luca, biagio, celestino);
+        Map<Object, AggregatedGroup> groups = aggregate(meAndMyFriends, by(on(Person.class).getAge()),
+                sumOf(on(Person.class).getAge()), count(), maxOf(on(Person.class).getFirstName()), avgOf(on(Person.class).getAge()).as("averageAge"));
+
+        assertEquals(asList((Object)35, 29, 39), new ArrayList<Object>(groups.keySet()));
+
+        AggregatedGroup aged29 = groups.get(29);
+        assertEquals(29, aged29.key());
+        assertEquals(58, aged29.get("sum(age)"));
+        assertEquals(2L, aged29.get(1));
+        assertEquals("Luca", aged29.get("max(firstName)"));
+        assertEquals(29, aged29.get("averageAge"));
+        assertEquals(asList("sum(age)", "count", "max(firstName)", "averageAge"), new ArrayList<String>(aged29.asMap().keySet()));
+
+        assertEquals(1L, groups.get(35).get("count"));
+        assertEquals(39, groups.get(39).get("sum(age)"));
+    }
+
+    @Test
+    public void testAggregateWithCustomAggregator() {
+        Map<Object, AggregatedGroup> groups = aggregate(asList(me, luca, biagio, celestino), by(on(Person.class).getAge()),
+                aggregation(new Concat(), on(Person.class).getLastName()));
+        assertEquals("Marrocco, Bellone", groups.get(29).get("lastName"));
+        assertTrue(aggregate(new ArrayList<Person>(), by(on(Person.class).getAge()), count()).isEmpty());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownAggregate() {
+        aggregate(asList(me), by(on(Person.class).getAge()), count()).get(35).get("sum");
+    }
+}
@@ -0,0 +1,60 @@
+// Modified or written by Lambdascale SRL for inclusion with lambdaj.
+// Copyright (c) 2009-2010 Mario Fusco.
+// Licensed under the Apache License, Version 2.0 (the "License")
+
+package ch.lambdaj.group;
+
+import static ch.lambdaj.Lambda.*;
+import static org.junit.Assert.*;
+
+import java.util.*;
+
+import org.junit.*;
+
+import ch.lambdaj.mock.*;
+
+/**
+ * @author Mario Fusco
+ */
+public class ParallelGroupTest {
+
+    private static List<Person> randomPersons(int size) {
+        List<Person> persons = new ArrayList<Person>();
+        Random random = new Random(7);
+        for (int i = 0; i < size; i++) {
+            persons.add(new Person("Name" + random.nextInt(20), "Surname" + random.nextInt(5), 20 + random.nextInt(30)));
+        }
+        return persons;
+    }
+
+    private static <T> void assertSameGroups(Group<T> expected, Group<T> actual) {
+        assertEquals(expected.isLeaf(), actual.isLeaf());
+        assertEquals(expected.key(), actual.key());
+        assertEquals(expected.getHeads(), actual.getHeads());
+        assertEquals(expected.findAll(), actual.findAll());
+        List<Group<T>> expectedSubgroups = expected.subgroups();
+        List<Group<T>> actualSubgroups = actual.subgroups();
+        assertEquals(expectedSubgroups.size(), actualSubgroups.size());
+        for (int i = 0; i < expectedSubgroups.size(); i++) { assertSameGroups(expectedSubgroups.get(i), actualSubgroups.get(i)); }
+    }
+
+    @Test
+    public void testParallelGroup() {
+        List<Person> persons = randomPersons(20000);
+        Group<Person> expected = Groups.group(persons, by(on(Person.class).getLastName()), by(on(Person.class).getAge()), by(on(Person.class).getFirstName()));
+        Group<Person> actual = Groups.parallelGroup(persons, by(on(Person.class).getLastName()), by(on(Person.class).getAge()), by(on(Person.class).getFirstName()));
+        assertSameGroups(expected, actual);
+        assertEquals(20000, actual.getSize());
+        assertEquals(expected.keySet(), actual.keySet());
+    }
+
+    @Test
+    public void testParallelGroupPreservesSorting() {
+        List<Person> persons = randomPersons(10000);
+        Group<Person> group = Groups.parallelGroup(new LinkedList<Person>(persons), by(on(Person.class).getAge()).sort(on(Integer.class).intValue()));
+        List<Group<Person>> subgroups = group.subgroups();
+        assertEquals(30, subgroups.size());
+        for (int i = 0; i < subgroups.size(); i++) { assertEquals(20 + i, subgroups.get(i).key()); }
+        assertSameGroups(Groups.group(persons, by(on(Person.class).getAge()).sort(on(Integer.class).intValue())), group);
+    }
+}
@@ -122,4 +122,100 @@ public class TypedGroupByTest {
         assertEquals(me, subgroup.first());
         assertEquals(me.getFirstName(), subsubgroup.key());
     }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testGroupByEqualKeys() {
+        luca.setBestFriend(new Person("Mario", "Fusco", 35));
+        celestino.setBestFriend(new Person("Mario", "Fusco", 35));
+        List<Person> meAndMyFriends = asList(me, luca, biagio, celestino);
+
+        Group<Person> group = group(meAndMyFriends, by(on(Person.class).getBestFriend()).head(on(Person.class).getAge(), "age"));
+        assertEquals(2, group.subgroups().size());
+        assertEquals(asList(luca, celestino), group.find(me));
+        assertEquals(asList(luca, celestino), group.find("Mario Fusco"));
+        assertEquals(asList(me, biagio), group.findGroup((Object)null).findAll());
+        assertEquals(new HashSet<String>(asList("", "Mario Fusco")), group.keySet());
+
+        GroupItem<Person> groupItem = ((List<GroupItem<Person>>)group).get(1);
+        assertEquals("Mario Fusco", groupItem.get("bestFriend"));
+        assertEquals("29", groupItem.get("age"));
+        assertEquals(asList(luca, celestino), groupItem.get("children"));
+        assertEquals(asList("age", "bestFriend", "children"), new ArrayList<String>(groupItem.keySet()));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testGroupItemIsMutableMap() {
+        Group<Person> group = group(asList(me, luca, biagio, celestino), by(on(Person.class).getAge()));
+        GroupItem<Person> groupItem = ((List<GroupItem<Person>>)group).get(1);
+        assertSame(groupItem, ((List<GroupItem<Person>>)group).get(1));
+        SortedMap<String, Object> sortedMap = groupItem;
+        assertEquals("age", sortedMap.firstKey());
+        assertNull(groupItem.put("note", "young"));
+        assertEquals("young", groupItem.get("note"));
+        assertEquals("29", groupItem.remove("age"));
+        assertFalse(groupItem.containsKey("age"));
+        assertEquals(asList("children", "note"), new ArrayList<String>(groupItem.keySet()));
+        assertEquals(asList(luca, celestino), groupItem.get("children"));
+        assertEquals(asList(luca, celestino), group.find(29));
+    }
+
+    @Test
+    public void testMultiLevelGroupIteratesItemsOnce() {
+        final Iterator<Person> people = asList(me, luca, biagio, celestino).iterator();
+        Iterable<Person> iterableOnce = new Iterable<Person>() {
+            private boolean iterated;
+            public Iterator<Person> iterator() {
+                assertFalse(iterated);
+                iterated = true;
+                return people;
+            }
+        };
+
+        Group<Person> group = group(iterableOnce, by(on(Person.class).getAge()), by(on(Person.class).getLastName()), by(on(Person.class).getFirstName()));
+        assertEquals(4, group.getSize());
+        Group<Person> group29aged = group.findGroup(29);
+        assertEquals(2, group29aged.subgroups().size());
+        assertEquals(asList(celestino), group29aged.findGroup("Bellone").find("Celestino"));
+        assertTrue(group29aged.findGroup("Bellone").findGroup("Celestino").isLeaf());
+    }
+
+    @Test
+    public void testSizeAndItemsViewOfMultiLevelGroup() {
+        Group<Person> group = group(asList(me, luca, biagio, celestino), by(on(Person.class).getAge()), by(on(Person.class).getLastName()));
+        assertEquals(4, group.getSize());
+        assertEquals(2, group.findGroup(29).getSize());
+        assertEquals(1, group.findGroup(29).findGroup("Marrocco").getSize());
+        assertEquals(me, group.first());
+        assertEquals(luca, group.findGroup(29).first());
+
+        List<Person> all = group.findAll();
+        assertEquals(asList(me, luca, celestino, biagio), all);
+        assertEquals(4, all.size());
+        assertEquals(celestino, all.get(2));
+        assertEquals(biagio, all.get(3));
+        assertEquals(asList(luca, celestino), group.findGroup(29).findAll());
+        try {
+            all.add(me);
+            fail("The items of a group cannot be modified through findAll");
+        } catch (UnsupportedOperationException e) { }
+        assertSame(all, group.findAll());
+    }
+
+    @Test
+    public void testItemsOfGroupAreReadOnly() {
+        Group<Person> group = group(asList(me, luca, biagio, celestino), by(on(Person.class).getAge()));
+        List<Person> aged29 = group.find(29);
+        try {
+            aged29.add(me);
+            fail("The items of a group cannot be modified through find");
+        } catch (UnsupportedOperationException e) { }
+        try {
+            group.findGroup(29).findAll().clear();
+            fail("The items of a leaf group cannot be modified through findAll");
+        } catch (UnsupportedOperationException e) { }
+        assertEquals(4, group.getSize());
+        assertEquals(asList(me, luca, celestino, biagio), group.findAll());
+    }
 }
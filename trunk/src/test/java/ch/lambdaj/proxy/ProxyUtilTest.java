@@ -0,0 +1,57 @@
+// Modified or written by Lambdascale SRL for inclusion with lambdaj.
+// Copyright (c) 2009-2010 Mario Fusco.
+// Licensed under the Apache License, Version 2.0 (the "License")
+
+package ch.lambdaj.proxy;
+
+import ch.lambdaj.mock.*;
+import org.junit.*;
+
+import java.lang.reflect.*;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Mario Fusco
+ */
+public class ProxyUtilTest {
+
+    private static class NameInterceptor extends InvocationInterceptor {
+        private final String name;
+
+        private NameInterceptor(String name) {
+            this.name = name;
+        }
+
+        public Object invoke(Object proxy, Method method, Object[] args) {
+            return method.getName().equals("getFirstName") ? name : null;
+        }
+    }
+
+    @Test
+    public void testProxyClassIsReused() {
+        Person first = ProxyUtil.createProxy(new NameInterceptor("Mario"), Person.class, false);
+        Person second = ProxyUtil.createProxy(new NameInterceptor("Luca"), Person.class, false);
+        assertSame(first.getClass(), second.getClass());
+        assertEquals("Mario", first.getFirstName());
+        assertEquals("Luca", second.getFirstName());
+    }
+
+    @Test
+    public void testDifferentInterfacesGenerateDifferentClasses() {
+        Person person = ProxyUtil.createProxy(new NameInterceptor("Mario"), Person.class, false);
+        Person iterablePerson = ProxyUtil.createIterableProxy(new NameInterceptor("Mario"), Person.class);
+        assertNotSame(person.getClass(), iterablePerson.getClass());
+        assertTrue(iterablePerson instanceof Iterable);
+        assertFalse(person instanceof Iterable);
+    }
+
+    @Test
+    public void testUnproxableClass() {
+        assertNull(ProxyUtil.createProxy(new NameInterceptor("Mario"), String.class, true));
+        try {
+            ProxyUtil.createProxy(new NameInterceptor("Mario"), String.class, false);
+            fail("A final class should not be proxable");
+        } catch (UnproxableClassException e) { }
+    }
+}
@@ -0,0 +1,69 @@
+// Modified or written by Lambdascale SRL for inclusion with lambdaj.
+// Copyright (c) 2009-2010 Mario Fusco.
+// Licensed under the Apache License, Version 2.0 (the "License")
+
+package ch.lambdaj.util;
+
+import org.junit.*;
+
+import java.lang.ref.*;
+
+import static org.junit.Assert.*;
+import static org.junit.Assume.*;
+
+/**
+ * @author Mario Fusco
+ */
+public class ConcurrentWeakHashMapTest {
+
+    @Test
+    public void testEqualKeys() {
+        ConcurrentWeakHashMap<String, Integer> map = new ConcurrentWeakHashMap<String, Integer>();
+        String key = new String("key");
+        assertNull(map.put(key, 1));
+        assertEquals(Integer.valueOf(1), map.get(new String("key")));
+        assertEquals(Integer.valueOf(1), map.put(new String("key"), 2));
+        assertEquals(Integer.valueOf(2), map.get(key));
+        assertEquals(1, map.size());
+        assertNull(map.get(null));
+    }
+
+    @Test
+    public void testPutIfAbsent() {
+        ConcurrentWeakHashMap<String, Integer> map = new ConcurrentWeakHashMap<String, Integer>();
+        String key = "key";
+        assertNull(map.putIfAbsent(key, 1));
+        assertEquals(Integer.valueOf(1), map.putIfAbsent(key, 2));
+        assertEquals(Integer.valueOf(1), map.get(key));
+        assertEquals(Integer.valueOf(1), map.remove(key));
+        assertNull(map.get(key));
+    }
+
+    @Test
+    public void testCollectedKeysAreRemoved() throws Exception {
+        ConcurrentWeakHashMap<Object, String> map = new ConcurrentWeakHashMap<Object, String>();
+        map.put(new Object(), "value");
+        assumeTrue(awaitGarbageCollection(5000));
+        // the collected key may be enqueued slightly after the sentinel
+        long deadline = System.currentTimeMillis() + 1000;
+        while (map.size() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(0, map.size());
+    }
+
+    /**
+     * Requests garbage collections until a sentinel object, unreachable as the keys of the map, has been enqueued
+     * on a reference queue, so the test is skipped instead of failing when the JVM doesn't collect in time
+     */
+    private boolean awaitGarbageCollection(long timeout) throws InterruptedException {
+        ReferenceQueue<Object> queue = new ReferenceQueue<Object>();
+        Reference<Object> sentinel = new WeakReference<Object>(new Object(), queue);
+        long deadline = System.currentTimeMillis() + timeout;
+        while (System.currentTimeMillis() < deadline) {
+            System.gc();
+            if (queue.remove(10) == sentinel) return true;
+        }
+        return false;
+    }
+}
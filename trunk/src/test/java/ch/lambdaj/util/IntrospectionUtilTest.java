@@ -0,0 +1,111 @@
+// Modified or written by Lambdascale SRL for inclusion with lambdaj.
+// Copyright (c) 2009-2010 Mario Fusco.
+// Licensed under the Apache License, Version 2.0 (the "License")
+
+package ch.lambdaj.util;
+
+import ch.lambdaj.mock.*;
+import org.junit.*;
+
+import static ch.lambdaj.util.IntrospectionUtil.*;
+import static org.junit.Assert.*;
+
+/**
+ * @author Mario Fusco
+ */
+public class IntrospectionUtilTest {
+
+    public static class Holder {
+        private final Object content;
+
+        public Holder(Object content) {
+            this.content = content;
+        }
+
+        public Object getContent() {
+            return content;
+        }
+
+        public String getBroken() {
+            throw new IllegalStateException("broken");
+        }
+    }
+
+    public static class Switch {
+        public boolean isOn() {
+            return false;
+        }
+    }
+
+    public static class DescribedSwitch extends Switch {
+        public String getOn() {
+            return "on";
+        }
+    }
+
+    public static class Panel {
+        private final Switch mainSwitch;
+
+        public Panel(Switch mainSwitch) {
+            this.mainSwitch = mainSwitch;
+        }
+
+        public Switch getMainSwitch() {
+            return mainSwitch;
+        }
+    }
+
+    @Test
+    public void testCompiledPropertyPath() {
+        Person me = new Person("Mario", "Fusco", 35);
+        me.setBestFriend(new Person("Biagio", "Beatrice", 39));
+        assertEquals("Biagio", getPropertyValue(me, "bestFriend.firstName"));
+        assertEquals(39, getPropertyValue(me, "bestFriend.age"));
+        assertNull(getPropertyValue(new Person("Mario"), "bestFriend.firstName"));
+        assertNull(getPropertyValue(null, "bestFriend.firstName"));
+
+        PropertyPathAccessor accessor = getPropertyPathAccessor(Person.class, "bestFriend.firstName");
+        assertTrue(accessor.isCompiled());
+        assertSame(accessor, getPropertyPathAccessor(Person.class, "bestFriend.firstName"));
+    }
+
+    @Test
+    public void testPropertyPathResolvedOnActualClasses() {
+        Holder holder = new Holder(new Person("Mario", "Fusco", 35));
+        assertFalse(getPropertyPathAccessor(Holder.class, "content.lastName").isCompiled());
+        assertEquals("Fusco", getPropertyValue(holder, "content.lastName"));
+        assertEquals(5, getPropertyValue(new Holder("Mario"), "content.length"));
+        assertEquals(35, getPropertyValue(holder, "content.age"));
+    }
+
+    @Test
+    public void testGetterOfActualClassWinsOverIsGetterOfDeclaredType() {
+        assertFalse(getPropertyPathAccessor(Panel.class, "mainSwitch.on").isCompiled());
+        assertEquals(false, getPropertyValue(new Panel(new Switch()), "mainSwitch.on"));
+        assertEquals("on", getPropertyValue(new Panel(new DescribedSwitch()), "mainSwitch.on"));
+    }
+
+    @Test
+    public void testMissingProperty() {
+        Object missing = new Object();
+        assertSame(missing, getPropertyValueOrDefault(new Person("Mario"), "nickName", missing));
+        assertSame(missing, getPropertyValueOrDefault(new Holder("Mario"), "content.age", missing));
+        assertNull(findPropertyAccessor(Person.class, "nickName"));
+        try {
+            getPropertyValue(new Holder("Mario"), "content.age");
+            fail("Reading a missing property must fail");
+        } catch (IntrospectionException e) {
+            assertTrue(e.getMessage().contains("content.age"));
+        }
+    }
+
+    @Test
+    public void testFailingAccessor() {
+        try {
+            getPropertyValue(new Holder("Mario"), "broken");
+            fail("A failing accessor must be reported");
+        } catch (IntrospectionException e) {
+            assertTrue(e.getCause() instanceof IllegalStateException);
+        }
+    }
+}
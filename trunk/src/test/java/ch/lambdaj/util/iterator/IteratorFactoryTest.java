@@ -43,4 +43,11 @@ public class IteratorFactoryTest {
             fail("next invocation after last item must fail");
         } catch (NoSuchElementException nse) { }
     }
+
+    @Test
+    public void testSizeHint() {
+        assertEquals(3, IteratorFactory.asResettableIterator(asList("one", "two", "three")).sizeHint());
+        assertEquals(2, IteratorFactory.asResettableIterator(new String[] { "one", "two" }).sizeHint());
+        assertEquals(-1, IteratorFactory.asResettableIterator(asList("one", "two", "three").iterator()).sizeHint());
+    }
 }